@@ -0,0 +1,154 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+/**
+ * Point-to-point shortest paths by A* search with landmark lower bounds (ALT).
+ * The search is Dijkstra's algorithm keyed on distTo[v] plus the landmark bound
+ * on the remaining distance to t, which steers it toward t so that it settles
+ * far fewer vertices. Only the vertices touched by the previous query are
+ * reset between queries.
+ */
+public class ALTSP {
+    private final EdgeWeightedDigraph G;
+    private final Landmarks landmarks;
+    private final double[] distTo;
+    private final DirectedEdge[] edgeTo;
+    private final DoubleIndexMinPQ pq;
+    private final int[] touched;
+    private int touchedCount;
+    private int s = -1;
+    private int t = -1;
+    private int settled;
+
+    public ALTSP(EdgeWeightedDigraph G, Landmarks landmarks) {
+        if (landmarks.V() != G.V()) throw new IllegalArgumentException("Landmarks belong to a different graph");
+        for (DirectedEdge e : G.edges()) {
+            if (e.weight() < 0)
+                throw new IllegalArgumentException("edge " + e + " has negative weight");
+        }
+        this.G = G;
+        this.landmarks = landmarks;
+        distTo = new double[G.V()];
+        edgeTo = new DirectedEdge[G.V()];
+        pq = new DoubleIndexMinPQ(G.V());
+        touched = new int[G.V()];
+        for (int v = 0; v < G.V(); v++) distTo[v] = Double.POSITIVE_INFINITY;
+    }
+
+    private void search(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        if (s == this.s && t == this.t) return;
+        for (int i = 0; i < touchedCount; i++) {
+            distTo[touched[i]] = Double.POSITIVE_INFINITY;
+            edgeTo[touched[i]] = null;
+        }
+        touchedCount = 0;
+        pq.clear();
+        this.s = s;
+        this.t = t;
+        settled = 0;
+
+        distTo[s] = 0.0;
+        touched[touchedCount++] = s;
+        if (landmarks.lowerBound(s, t) == Double.POSITIVE_INFINITY) return;
+        pq.insert(s, landmarks.lowerBound(s, t));
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            settled++;
+            if (v == t) return;
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
+                double dist = distTo[v] + e.weight();
+                if (distTo[w] > dist) {
+                    double bound = landmarks.lowerBound(w, t);
+                    if (distTo[w] == Double.POSITIVE_INFINITY) touched[touchedCount++] = w;
+                    distTo[w] = dist;
+                    edgeTo[w] = e;
+                    if (bound == Double.POSITIVE_INFINITY) continue;
+                    // a vertex that was already settled is reopened, so rounding in the bounds cannot lose a path
+                    if (pq.contains(w)) pq.decreaseKey(w, dist + bound);
+                    else pq.insert(w, dist + bound);
+                }
+            }
+        }
+    }
+
+    public double distTo(int s, int t) {
+        search(s, t);
+        return distTo[t];
+    }
+
+    public boolean hasPathTo(int s, int t) {
+        search(s, t);
+        return distTo[t] < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int s, int t) {
+        search(s, t);
+        if (distTo[t] == Double.POSITIVE_INFINITY) return null;
+        Stack<DirectedEdge> path = new Stack<>();
+        for (DirectedEdge e = edgeTo[t]; e != null; e = edgeTo[e.from()]) {
+            path.push(e);
+        }
+        return path;
+    }
+
+    /**
+     * Number of vertices removed from the priority queue by the last query.
+     */
+    public int settled() {
+        return settled;
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    /**
+     * Usage: graph-file landmark-file k s t. The landmark file is created when missing.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 5) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        Path table = Path.of(args[1]);
+        int k = Integer.parseInt(args[2]);
+        int s = Integer.parseInt(args[3]);
+        int t = Integer.parseInt(args[4]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            Landmarks landmarks;
+            if (Files.exists(table)) {
+                landmarks = Landmarks.load(table);
+            } else {
+                landmarks = new Landmarks(G, k);
+                landmarks.save(table);
+            }
+            ALTSP sp = new ALTSP(G, landmarks);
+            if (sp.hasPathTo(s, t)) {
+                System.out.printf("%d to %d: (%.2f)  ", s, t, sp.distTo(s, t));
+                for (DirectedEdge e : sp.pathTo(s, t)) {
+                    System.out.print(e + "   ");
+                }
+                System.out.println();
+            } else {
+                System.out.printf("%d to %d: no path\n", s, t);
+            }
+
+            DijkstraSP dijkstra = new DijkstraSP(G, s);
+            int reachable = 0;
+            for (int v = 0; v < G.V(); v++) if (dijkstra.hasPathTo(v)) reachable++;
+            System.out.printf("settled %d vertices, DijkstraSP settles %d\n", sp.settled(), reachable);
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
@@ -8,7 +8,7 @@ public class BellmanFordSP {
     private double[] distTo;
     private DirectedEdge[] edgeTo;
     private boolean[] onQueue;
-    private Queue<Integer> queue;
+    private IntQueue queue;
     private int cost;
     private Iterable<DirectedEdge> cycle;
 
@@ -20,7 +20,7 @@ public class BellmanFordSP {
             distTo[v] = Double.POSITIVE_INFINITY;
         }
         distTo[s] = 0.0;
-        queue = new Queue<>();
+        queue = new IntQueue();
         queue.enqueue(s);
         onQueue[s] = true;
         while (!queue.isEmpty() && !hasNegativeCycle()) {
@@ -0,0 +1,43 @@
+package algs;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Allocation and garbage-collection counters shared by the benchmark mains.
+ */
+class Benchmarks {
+    private Benchmarks() {
+    }
+
+    // bytes allocated so far by the current thread, or -1 if the JVM does not say
+    static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    static long gcMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(gc.getCollectionTime(), 0);
+        }
+        return time;
+    }
+
+    static void report(String name, long ops, long nanos, long bytes, long gcs, long gcTime) {
+        System.out.printf("%-24s %8.2f ns/op %10.2f B/op %6d GCs %6d ms GC\n",
+                name, (double) nanos / ops, bytes < 0 ? Double.NaN : (double) bytes / ops, gcs, gcTime);
+    }
+}
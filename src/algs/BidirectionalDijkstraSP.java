@@ -0,0 +1,169 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+/**
+ * Point-to-point shortest paths by bidirectional Dijkstra.
+ * A forward search from s on G and a backward search from t on the reverse of G
+ * run alternately, always expanding the smaller frontier, and stop as soon as
+ * the sum of the two smallest keys reaches the best s-t distance seen so far.
+ * Only the vertices touched by the previous query are reset, so a query costs
+ * nothing for the parts of the graph it never reaches.
+ */
+public class BidirectionalDijkstraSP {
+    private final EdgeWeightedDigraph G;
+    private final EdgeWeightedDigraph R;
+    private final double[] distF;
+    private final double[] distB;
+    private final DirectedEdge[] edgeF;
+    private final DirectedEdge[] edgeB;
+    private final DoubleIndexMinPQ pqF;
+    private final DoubleIndexMinPQ pqB;
+    private final int[] touched;
+    private int touchedCount;
+    private int s = -1;
+    private int t = -1;
+    private int meet;
+    private double distance;
+    private int settled;
+
+    public BidirectionalDijkstraSP(EdgeWeightedDigraph G) {
+        for (DirectedEdge e : G.edges()) {
+            if (e.weight() < 0)
+                throw new IllegalArgumentException("edge " + e + " has negative weight");
+        }
+        this.G = G;
+        this.R = G.reverse();
+        int V = G.V();
+        distF = new double[V];
+        distB = new double[V];
+        edgeF = new DirectedEdge[V];
+        edgeB = new DirectedEdge[V];
+        pqF = new DoubleIndexMinPQ(V);
+        pqB = new DoubleIndexMinPQ(V);
+        touched = new int[2 * V];
+        for (int v = 0; v < V; v++) {
+            distF[v] = Double.POSITIVE_INFINITY;
+            distB[v] = Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private void search(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        if (s == this.s && t == this.t) return;
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distF[v] = Double.POSITIVE_INFINITY;
+            distB[v] = Double.POSITIVE_INFINITY;
+            edgeF[v] = null;
+            edgeB[v] = null;
+        }
+        touchedCount = 0;
+        pqF.clear();
+        pqB.clear();
+        this.s = s;
+        this.t = t;
+        settled = 0;
+
+        distF[s] = 0.0;
+        distB[t] = 0.0;
+        touched[touchedCount++] = s;
+        touched[touchedCount++] = t;
+        pqF.insert(s, 0.0);
+        pqB.insert(t, 0.0);
+        distance = s == t ? 0.0 : Double.POSITIVE_INFINITY;
+        meet = s == t ? s : -1;
+
+        while (!pqF.isEmpty() && !pqB.isEmpty()) {
+            if (pqF.minKey() + pqB.minKey() >= distance) break;
+            settled++;
+            if (pqF.size() <= pqB.size()) {
+                int v = pqF.delMin();
+                for (DirectedEdge e : G.adj(v)) relax(e, distF, edgeF, pqF, distB);
+            } else {
+                int v = pqB.delMin();
+                for (DirectedEdge e : R.adj(v)) relax(e, distB, edgeB, pqB, distF);
+            }
+        }
+    }
+
+    private void relax(DirectedEdge e, double[] dist, DirectedEdge[] edgeTo, DoubleIndexMinPQ pq, double[] other) {
+        int v = e.from();
+        int w = e.to();
+        if (dist[w] > dist[v] + e.weight()) {
+            if (dist[w] == Double.POSITIVE_INFINITY && other[w] == Double.POSITIVE_INFINITY) touched[touchedCount++] = w;
+            dist[w] = dist[v] + e.weight();
+            edgeTo[w] = e;
+            if (pq.contains(w)) pq.decreaseKey(w, dist[w]);
+            else pq.insert(w, dist[w]);
+            if (dist[w] + other[w] < distance) {
+                distance = dist[w] + other[w];
+                meet = w;
+            }
+        }
+    }
+
+    public double distTo(int s, int t) {
+        search(s, t);
+        return distance;
+    }
+
+    public boolean hasPathTo(int s, int t) {
+        search(s, t);
+        return distance < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int s, int t) {
+        search(s, t);
+        if (distance == Double.POSITIVE_INFINITY) return null;
+        Stack<DirectedEdge> backward = new Stack<>();
+        for (DirectedEdge e = edgeB[meet]; e != null; e = edgeB[e.from()]) {
+            backward.push(new DirectedEdge(e.to(), e.from(), e.weight()));
+        }
+        Stack<DirectedEdge> path = new Stack<>();
+        while (!backward.isEmpty()) path.push(backward.pop());
+        for (DirectedEdge e = edgeF[meet]; e != null; e = edgeF[e.from()]) {
+            path.push(e);
+        }
+        return path;
+    }
+
+    /**
+     * Number of vertices removed from either priority queue by the last query.
+     */
+    public int settled() {
+        return settled;
+    }
+
+    private void validateVertex(int v) {
+        int V = distF.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int s = Integer.parseInt(args[1]);
+        int t = Integer.parseInt(args[2]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            BidirectionalDijkstraSP sp = new BidirectionalDijkstraSP(G);
+            if (sp.hasPathTo(s, t)) {
+                System.out.printf("%d to %d: (%.2f)  ", s, t, sp.distTo(s, t));
+                for (DirectedEdge e : sp.pathTo(s, t)) {
+                    System.out.print(e + "   ");
+                }
+                System.out.println();
+            } else {
+                System.out.printf("%d to %d: no path\n", s, t);
+            }
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parallel Boruvka minimum spanning forest.
+ * <p>
+ * Each round every component picks its lightest outgoing edge, the picked
+ * edges are added to the forest and their components merged, and the edge
+ * list is contracted by dropping the edges that now lie inside a component.
+ * The number of components at least halves per round, so there are at most
+ * log V rounds.
+ * <p>
+ * Edges are compared by weight and then by position in
+ * {@link EdgeWeightedGraph#edges()}. That order is total, so the forest is
+ * unique and reproducible whatever the thread schedule. Every step runs on a
+ * fork-join pool: each edge offers itself to the components of both endpoints
+ * with a compare-and-set minimum, the picks are merged in a
+ * {@link ConcurrentUnionFind}, and the surviving edges are compacted chunk by
+ * chunk.
+ */
+public class BoruvkaMST {
+    private static final int CHUNK = 1 << 14;
+
+    private final Queue<Edge> mst = new Queue<>();
+    private double weight;
+
+    private final ForkJoinPool pool;
+    private final Edge[] edges;
+    private final int[] v;
+    private final int[] w;
+    private final double[] weights;
+    private final int[] component;
+    private final AtomicIntegerArray best;
+
+    public BoruvkaMST(EdgeWeightedGraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public BoruvkaMST(EdgeWeightedGraph G, ForkJoinPool pool) {
+        this.pool = pool;
+        int V = G.V();
+        edges = new Edge[G.E()];
+        int m = 0;
+        for (Edge e : G.edges()) edges[m++] = e;
+        v = new int[m];
+        w = new int[m];
+        weights = new double[m];
+        int[] active = new int[m];
+        int[] buffer = new int[m];
+        int n = 0;
+        for (int i = 0; i < m; i++) {
+            v[i] = edges[i].either();
+            w[i] = edges[i].other(v[i]);
+            weights[i] = edges[i].weight();
+            if (v[i] != w[i]) active[n++] = i;
+        }
+        component = new int[V];
+        for (int x = 0; x < V; x++) component[x] = x;
+        best = new AtomicIntegerArray(V);
+        for (int x = 0; x < V; x++) best.set(x, -1);
+
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(V);
+        boolean[] taken = new boolean[m];
+        while (n > 0) {
+            select(active, n);
+
+            // merge along the picked edges in parallel; a pick shared by both sides wins one union
+            forEachChunk(V, (lo, hi) -> {
+                for (int c = lo; c < hi; c++) {
+                    int e = best.get(c);
+                    if (e != -1 && uf.union(v[e], w[e])) taken[e] = true;
+                }
+            });
+            // collect in component order so the output does not depend on the schedule
+            for (int c = 0; c < V; c++) {
+                int e = best.get(c);
+                if (e == -1) continue;
+                best.set(c, -1);
+                if (taken[e]) {
+                    taken[e] = false;
+                    mst.enqueue(edges[e]);
+                    weight += weights[e];
+                }
+            }
+
+            forEachChunk(V, (lo, hi) -> {
+                for (int x = lo; x < hi; x++) component[x] = uf.find(x);
+            });
+            n = contract(active, buffer, n);
+            int[] swap = active;
+            active = buffer;
+            buffer = swap;
+        }
+    }
+
+    private boolean less(int a, int b) {
+        int c = Double.compare(weights[a], weights[b]);
+        return c < 0 || c == 0 && a < b;
+    }
+
+    // best[c] becomes the lightest edge leaving component c
+    private void select(int[] active, int n) {
+        forEachChunk(n, (lo, hi) -> {
+            for (int k = lo; k < hi; k++) {
+                int e = active[k];
+                offer(component[v[e]], e);
+                offer(component[w[e]], e);
+            }
+        });
+    }
+
+    private void offer(int c, int e) {
+        while (true) {
+            int current = best.get(c);
+            if (current != -1 && !less(e, current)) return;
+            if (best.compareAndSet(c, current, e)) return;
+        }
+    }
+
+    // copies the edges of active[0..n) that join two components into out, in order; returns how many
+    private int contract(int[] active, int[] out, int n) {
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        int[] counts = new int[chunks + 1];
+        forEachChunk(n, (lo, hi) -> {
+            int count = 0;
+            for (int k = lo; k < hi; k++) {
+                int e = active[k];
+                if (component[v[e]] != component[w[e]]) count++;
+            }
+            counts[lo / CHUNK + 1] = count;
+        });
+        for (int c = 0; c < chunks; c++) counts[c + 1] += counts[c];
+        forEachChunk(n, (lo, hi) -> {
+            int next = counts[lo / CHUNK];
+            for (int k = lo; k < hi; k++) {
+                int e = active[k];
+                if (component[v[e]] != component[w[e]]) out[next++] = e;
+            }
+        });
+        return counts[chunks];
+    }
+
+    private interface RangeBody {
+        void run(int lo, int hi);
+    }
+
+    // runs body over [0, n) in chunks of CHUNK, in parallel when there is more than one
+    private void forEachChunk(int n, RangeBody body) {
+        if (n <= CHUNK) body.run(0, n);
+        else pool.invoke(new Chunks(body, n, 0, (n + CHUNK - 1) / CHUNK));
+    }
+
+    private static class Chunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeBody body;
+        private final int n;
+        private final int lo;
+        private final int hi;
+
+        Chunks(RangeBody body, int n, int lo, int hi) {
+            this.body = body;
+            this.n = n;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.run(lo * CHUNK, Math.min((lo + 1) * CHUNK, n));
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Chunks(body, n, lo, mid), new Chunks(body, n, mid, hi));
+        }
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    public Iterable<Edge> edges() {
+        return mst;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+            BoruvkaMST mst = new BoruvkaMST(G);
+            for (Edge e : mst.edges()) {
+                System.out.println(e);
+            }
+            System.out.printf("%.5f\n", mst.weight());
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
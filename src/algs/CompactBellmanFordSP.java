@@ -0,0 +1,167 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+/**
+ * Queue-based Bellman-Ford over a {@link CompactEdgeWeightedDigraph}.
+ * The worklist is an {@link IntQueue} of vertex ids and the periodic negative cycle
+ * check walks the parent pointers in place instead of building a new graph.
+ */
+public class CompactBellmanFordSP {
+    private final CompactEdgeWeightedDigraph G;
+    private double[] distTo;
+    private int[] edgeTo;
+    private int[] parent;
+    private boolean[] onQueue;
+    private IntQueue queue;
+    private int[] mark;
+    private int cost;
+    private Iterable<DirectedEdge> cycle;
+
+    public CompactBellmanFordSP(CompactEdgeWeightedDigraph G, int s) {
+        this.G = G;
+        int V = G.V();
+        distTo = new double[V];
+        edgeTo = new int[V];
+        parent = new int[V];
+        onQueue = new boolean[V];
+        queue = new IntQueue(V);
+        mark = new int[V];
+        validateVertex(s);
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeTo[v] = -1;
+            parent[v] = -1;
+            mark[v] = -1;
+        }
+        distTo[s] = 0.0;
+        enqueue(s);
+        while (!queue.isEmpty() && !hasNegativeCycle()) {
+            int v = dequeue();
+            relax(v);
+        }
+    }
+
+    private void enqueue(int v) {
+        queue.enqueue(v);
+        onQueue[v] = true;
+    }
+
+    private int dequeue() {
+        int v = queue.dequeue();
+        onQueue[v] = false;
+        return v;
+    }
+
+    private void relax(int v) {
+        int[] offsets = G.offsets();
+        int[] targets = G.targets();
+        double[] weights = G.weights();
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            int w = targets[i];
+            double dist = distTo[v] + weights[i];
+            if (distTo[w] > dist) {
+                distTo[w] = dist;
+                edgeTo[w] = i;
+                parent[w] = v;
+                if (!onQueue[w]) enqueue(w);
+            }
+            if (++cost % G.V() == 0) {
+                findNegativeCycle();
+                if (hasNegativeCycle()) return;
+            }
+        }
+    }
+
+    public boolean hasNegativeCycle() {
+        return cycle != null;
+    }
+
+    public Iterable<DirectedEdge> negativeCycle() {
+        return cycle;
+    }
+
+    // the parent pointers form a forest unless they close a cycle, so walking
+    // each chain once with a per-start mark finds it in O(V)
+    private void findNegativeCycle() {
+        int V = parent.length;
+        for (int v = 0; v < V; v++) mark[v] = -1;
+        for (int v = 0; v < V; v++) {
+            int x = v;
+            while (x != -1 && mark[x] == -1) {
+                mark[x] = v;
+                x = parent[x];
+            }
+            if (x != -1 && mark[x] == v) {
+                Stack<DirectedEdge> edges = new Stack<>();
+                int y = x;
+                do {
+                    edges.push(G.edge(edgeTo[y]));
+                    y = parent[y];
+                } while (y != x);
+                cycle = edges;
+                return;
+            }
+        }
+    }
+
+    public double distTo(int v) {
+        validateVertex(v);
+        if (hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<>();
+        for (int w = v; edgeTo[w] != -1; w = parent[w]) {
+            path.push(G.edge(edgeTo[w]));
+        }
+        return path;
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int s = Integer.parseInt(args[1]);
+        try (Scanner in = new Scanner(file)) {
+            CompactEdgeWeightedDigraph G = new CompactEdgeWeightedDigraph(new EdgeWeightedDigraph(in));
+            CompactBellmanFordSP sp = new CompactBellmanFordSP(G, s);
+
+            if (sp.hasNegativeCycle()) {
+                for (DirectedEdge e : sp.negativeCycle()) {
+                    System.out.println(e);
+                }
+            } else {
+                for (int v = 0; v < G.V(); v++) {
+                    if (sp.hasPathTo(v)) {
+                        System.out.printf("%d to %d (%5.2f)  ", s, v, sp.distTo(v));
+                        for (DirectedEdge e : sp.pathTo(v)) {
+                            System.out.print(e + "   ");
+                        }
+                        System.out.println();
+                    } else {
+                        System.out.printf("%d to %d   no path\n", s, v);
+                    }
+                }
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
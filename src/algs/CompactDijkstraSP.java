@@ -0,0 +1,165 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Scanner;
+
+/**
+ * Dijkstra's algorithm over a {@link CompactEdgeWeightedDigraph}, or over a
+ * {@link MappedGraph} read in place, so a graph file is searched without
+ * copying its edges onto the heap.
+ * The parent of each vertex is kept as an edge index, so no edge objects are
+ * created until a path is requested.
+ */
+public class CompactDijkstraSP {
+    private final CompactEdgeWeightedDigraph G; // null when searching a mapped graph
+    private final MappedGraph mapped;
+    private double[] distTo;
+    private int[] edgeTo;
+    private DoubleIndexMinPQ pq;
+
+    public CompactDijkstraSP(CompactEdgeWeightedDigraph G, int s) {
+        this(G, s, 4);
+    }
+
+    /**
+     * Computes the shortest-path tree from s using a d-ary heap.
+     */
+    public CompactDijkstraSP(CompactEdgeWeightedDigraph G, int s, int d) {
+        this.G = G;
+        this.mapped = null;
+        int[] offsets = G.offsets();
+        int[] targets = G.targets();
+        double[] weights = G.weights();
+        for (int i = 0; i < G.E(); i++) {
+            if (weights[i] < 0)
+                throw new IllegalArgumentException("edge " + G.edge(i) + " has negative weight");
+        }
+        init(G.V(), s, d);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                relax(v, i, targets[i], weights[i]);
+            }
+        }
+    }
+
+    public CompactDijkstraSP(MappedGraph G, int s) {
+        this(G, s, 4);
+    }
+
+    /**
+     * Computes the shortest-path tree from s of a mapped weighted digraph,
+     * reading its adjacency arrays straight from the mapping. Only the edges
+     * the search scans are read, so a weight is checked for being negative
+     * when its edge is scanned.
+     */
+    public CompactDijkstraSP(MappedGraph G, int s, int d) {
+        G.requireKind(GraphFile.DIRECTED | GraphFile.WEIGHTED);
+        this.G = null;
+        this.mapped = G;
+        IntBuffer offsets = G.offsets();
+        IntBuffer targets = G.targets();
+        DoubleBuffer weights = G.weights();
+        init(G.V(), s, d);
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            for (int i = offsets.get(v), end = offsets.get(v + 1); i < end; i++) {
+                double weight = weights.get(i);
+                if (weight < 0) throw new IllegalArgumentException("edge " + G.edge(i) + " has negative weight");
+                relax(v, i, targets.get(i), weight);
+            }
+        }
+    }
+
+    private void init(int V, int s, int d) {
+        distTo = new double[V];
+        edgeTo = new int[V];
+        validateVertex(s);
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            edgeTo[v] = -1;
+        }
+        distTo[s] = 0.0;
+        pq = new DoubleIndexMinPQ(V, d);
+        pq.insert(s, 0.0);
+    }
+
+    // edge i runs from v to w
+    private void relax(int v, int i, int w, double weight) {
+        double dist = distTo[v] + weight;
+        if (distTo[w] > dist) {
+            distTo[w] = dist;
+            edgeTo[w] = i;
+            if (pq.contains(w)) pq.decreaseKey(w, dist);
+            else pq.insert(w, dist);
+        }
+    }
+
+    // the result arrays, shared with ShortestPathCache instead of copied
+    double[] distances() {
+        return distTo;
+    }
+
+    int[] parentEdges() {
+        return edgeTo;
+    }
+
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<>();
+        for (int i = edgeTo[v]; i != -1; i = edgeTo[from(i)]) {
+            path.push(G != null ? G.edge(i) : mapped.edge(i));
+        }
+        return path;
+    }
+
+    private int from(int i) {
+        return G != null ? G.from(i) : mapped.from(i);
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int s = Integer.parseInt(args[1]);
+        try (Scanner in = new Scanner(file)) {
+            CompactEdgeWeightedDigraph G = new CompactEdgeWeightedDigraph(new EdgeWeightedDigraph(in));
+            CompactDijkstraSP sp = new CompactDijkstraSP(G, s);
+
+            for (int v = 0; v < G.V(); v++) {
+                if (sp.hasPathTo(v)) {
+                    System.out.printf("%d to %d: (%.2f)  ", s, v, sp.distTo(v));
+                    for (DirectedEdge e : sp.pathTo(v)) {
+                        System.out.print(e + "   ");
+                    }
+                    System.out.println();
+                } else {
+                    System.out.printf("%d to %d: no path\n", s, v);
+                }
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
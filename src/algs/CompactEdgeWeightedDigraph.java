@@ -0,0 +1,156 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+/**
+ * Immutable compressed-sparse-row snapshot of an edge-weighted digraph.
+ * The out-edges of v are the edge indices offsets[v] to offsets[v + 1] - 1,
+ * in the same order as {@code EdgeWeightedDigraph.adj(v)}.
+ */
+public class CompactEdgeWeightedDigraph {
+    private final int V;
+    private final int E;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    public CompactEdgeWeightedDigraph(EdgeWeightedDigraph G) {
+        if (G == null) throw new IllegalArgumentException("Graph is null");
+        V = G.V();
+        E = G.E();
+        offsets = new int[V + 1];
+        targets = new int[E];
+        weights = new double[E];
+        int i = 0;
+        for (int v = 0; v < V; v++) {
+            offsets[v] = i;
+            for (DirectedEdge e : G.adj(v)) {
+                targets[i] = e.to();
+                weights[i] = e.weight();
+                i++;
+            }
+        }
+        offsets[V] = i;
+    }
+
+    CompactEdgeWeightedDigraph(int V, int[] offsets, int[] targets, double[] weights) {
+        this.V = V;
+        this.E = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int V() {
+        return V;
+    }
+
+    public int E() {
+        return E;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    private void validateEdge(int i) {
+        if (i < 0 || i >= E) throw new IllegalArgumentException("edge " + i + " is not between 0 and " + (E - 1));
+    }
+
+    /**
+     * Index of the first out-edge of v.
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets[v];
+    }
+
+    /**
+     * One past the index of the last out-edge of v.
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets[v + 1];
+    }
+
+    public int outdegree(int v) {
+        validateVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+
+    public int from(int i) {
+        validateEdge(i);
+        int lo = 0, hi = V - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= i) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    public int to(int i) {
+        validateEdge(i);
+        return targets[i];
+    }
+
+    public double weight(int i) {
+        validateEdge(i);
+        return weights[i];
+    }
+
+    public DirectedEdge edge(int i) {
+        return new DirectedEdge(from(i), to(i), weight(i));
+    }
+
+    // direct array access for the shortest-path hot loops in this package
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    double[] weights() {
+        return weights;
+    }
+
+    public EdgeWeightedDigraph toEdgeWeightedDigraph() {
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(V);
+        for (int v = 0; v < V; v++) {
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                G.addEdge(new DirectedEdge(v, targets[i], weights[i]));
+            }
+        }
+        return G;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(String.format("%d vertices, %d edges\n", V, E));
+        for (int v = 0; v < V; v++) {
+            s.append(String.format("%d: ", v));
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                s.append(String.format("%d->%d %5.2f", v, targets[i], weights[i])).append(" ");
+            }
+            s.append("\n");
+        }
+        return s.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            CompactEdgeWeightedDigraph G = new CompactEdgeWeightedDigraph(new EdgeWeightedDigraph(in));
+            System.out.println(G);
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package algs;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free FIFO queue of non-negative ints for any number of
+ * producers and consumers (Vyukov's array queue).
+ * <p>
+ * Every cell of a power-of-two ring carries a sequence number telling which
+ * ticket may use it next: a cell is free for the enqueue with ticket p when
+ * its sequence is p, and full for the dequeue with ticket p when it is p + 1.
+ * A thread takes a ticket with one compare-and-set on the shared tail (or
+ * head), writes (or reads) the value and then publishes the cell with a
+ * volatile store of its next sequence. The batch operations check that a run
+ * of consecutive cells is ready and claim the whole run with a single
+ * compare-and-set, so a worker moving a chunk of vertices pays for one
+ * contended update instead of one per vertex.
+ * <p>
+ * size is exact only while no operation is in progress.
+ */
+public class ConcurrentIntQueue {
+    private final int mask;
+    private final int[] values;
+    private final AtomicLongArray sequence;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * A queue holding at least capacity ints, rounded up to a power of two of
+     * at least 2 (with one cell, "just filled" and "free for the next lap"
+     * would be the same sequence number).
+     */
+    public ConcurrentIntQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        int n = Math.max(Integer.highestOneBit(capacity), 2);
+        if (n < capacity) n <<= 1;
+        mask = n - 1;
+        values = new int[n];
+        sequence = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) sequence.set(i, i);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Adds x at the tail; returns false if the queue is full.
+     */
+    public boolean offer(int x) {
+        if (x < 0) throw new IllegalArgumentException("value " + x + " is negative");
+        while (true) {
+            long p = tail.get();
+            int cell = (int) p & mask;
+            long seq = sequence.get(cell);
+            if (seq == p) {
+                if (tail.compareAndSet(p, p + 1)) {
+                    values[cell] = x;
+                    sequence.set(cell, p + 1);
+                    return true;
+                }
+            } else if (seq < p) {
+                return false; // the cell still holds the value from one lap ago
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the int at the head, or -1 if the queue is empty.
+     */
+    public int poll() {
+        while (true) {
+            long p = head.get();
+            int cell = (int) p & mask;
+            long seq = sequence.get(cell);
+            if (seq == p + 1) {
+                if (head.compareAndSet(p, p + 1)) {
+                    int x = values[cell];
+                    sequence.set(cell, p + mask + 1);
+                    return x;
+                }
+            } else if (seq < p + 1) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Adds a[from..to) at the tail in order, in as few claims as contention
+     * allows, and returns how many fit before the queue filled.
+     */
+    public int offerAll(int[] a, int from, int to) {
+        if (from < 0 || to > a.length || from > to) throw new IllegalArgumentException();
+        for (int i = from; i < to; i++) {
+            if (a[i] < 0) throw new IllegalArgumentException("value " + a[i] + " is negative");
+        }
+        int done = from;
+        while (done < to) {
+            long p = tail.get();
+            int want = to - done;
+            int free = 0;
+            while (free < want && sequence.get((int) (p + free) & mask) == p + free) free++;
+            if (free == 0) {
+                if (sequence.get((int) p & mask) < p) return done - from; // full
+                continue; // another producer took ticket p
+            }
+            if (!tail.compareAndSet(p, p + free)) continue;
+            for (int i = 0; i < free; i++) {
+                int cell = (int) (p + i) & mask;
+                values[cell] = a[done + i];
+                sequence.set(cell, p + i + 1);
+            }
+            done += free;
+        }
+        return to - from;
+    }
+
+    /**
+     * Removes up to max ints from the head into a[from..), in order, and
+     * returns how many were removed; 0 means the queue was empty.
+     */
+    public int drainTo(int[] a, int from, int max) {
+        if (from < 0 || max < 0 || max > a.length - from) throw new IllegalArgumentException();
+        int done = 0;
+        while (done < max) {
+            long p = head.get();
+            int want = max - done;
+            int full = 0;
+            while (full < want && sequence.get((int) (p + full) & mask) == p + full + 1) full++;
+            if (full == 0) {
+                if (sequence.get((int) p & mask) < p + 1) return done; // empty
+                continue;
+            }
+            if (!head.compareAndSet(p, p + full)) continue;
+            for (int i = 0; i < full; i++) {
+                int cell = (int) (p + i) & mask;
+                a[from + done + i] = values[cell];
+                sequence.set(cell, p + i + mask + 1);
+            }
+            done += full;
+        }
+        return done;
+    }
+
+    /**
+     * Stress test and benchmark: producer threads push disjoint ranges of ids
+     * while consumers drain them, one at a time and in batches, against
+     * ConcurrentLinkedQueue&lt;Integer&gt;. Every id must come out exactly once.
+     */
+    public static void main(String[] args) throws Exception {
+        int ids = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(Runtime.getRuntime().availableProcessors(), 2);
+        int batch = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        int producers = Math.max(threads / 2, 1);
+        int consumers = Math.max(threads - producers, 1);
+
+        for (int round = 0; round < 3; round++) {
+            for (int m = 0; m < 3; m++) {
+                int mode = m;
+                ConcurrentIntQueue queue = new ConcurrentIntQueue(1 << 16);
+                ConcurrentLinkedQueue<Integer> linked = new ConcurrentLinkedQueue<>();
+                byte[] seen = new byte[ids];
+                AtomicInteger taken = new AtomicInteger();
+                Thread[] workers = new Thread[producers + consumers];
+                for (int t = 0; t < producers; t++) {
+                    int lo = (int) ((long) ids * t / producers);
+                    int hi = (int) ((long) ids * (t + 1) / producers);
+                    workers[t] = new Thread(() -> {
+                        int[] chunk = new int[batch];
+                        for (int i = lo; i < hi; ) {
+                            if (mode == 0) {
+                                if (queue.offer(i)) i++;
+                                else Thread.yield();
+                            } else if (mode == 1) {
+                                int n = Math.min(batch, hi - i);
+                                for (int k = 0; k < n; k++) chunk[k] = i + k;
+                                int put = queue.offerAll(chunk, 0, n);
+                                if (put == 0) Thread.yield();
+                                i += put;
+                            } else {
+                                linked.offer(i++);
+                            }
+                        }
+                    });
+                }
+                for (int t = 0; t < consumers; t++) {
+                    workers[producers + t] = new Thread(() -> {
+                        int[] chunk = new int[batch];
+                        while (taken.get() < ids) {
+                            int n = 0;
+                            if (mode == 0) {
+                                int x = queue.poll();
+                                if (x >= 0) chunk[n++] = x;
+                            } else if (mode == 1) {
+                                n = queue.drainTo(chunk, 0, batch);
+                            } else {
+                                Integer x = linked.poll();
+                                if (x != null) chunk[n++] = x;
+                            }
+                            if (n == 0) {
+                                Thread.yield();
+                                continue;
+                            }
+                            for (int k = 0; k < n; k++) {
+                                if (seen[chunk[k]]++ != 0) throw new IllegalStateException("id " + chunk[k] + " dequeued twice");
+                            }
+                            taken.addAndGet(n);
+                        }
+                    });
+                }
+                long start = System.nanoTime();
+                for (Thread worker : workers) worker.start();
+                for (Thread worker : workers) worker.join();
+                double ms = (System.nanoTime() - start) / 1e6;
+                for (int i = 0; i < ids; i++) {
+                    if (seen[i] != 1) throw new IllegalStateException("id " + i + " dequeued " + seen[i] + " times");
+                }
+                String name = mode == 0 ? "ConcurrentIntQueue" : mode == 1 ? "ConcurrentIntQueue x" + batch : "ConcurrentLinkedQueue";
+                System.out.printf("%-24s %d+%d threads %8.1f ms %8.2f Mops/s\n", name, producers, consumers, ms, ids / ms / 1e3);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package algs;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find for use from many threads at once.
+ * <p>
+ * Roots are linked with a compare-and-set on the parent of the root with the
+ * lower priority, so two unions racing on the same root cannot both win; the
+ * loser finds the new root and tries again. Priorities are a fixed
+ * pseudo-random permutation of the indices, which keeps trees shallow in
+ * expectation without a rank array to update. find halves paths with
+ * compare-and-set too: a failed halving step only means another thread
+ * already moved the pointer closer to the root, so it is simply skipped.
+ * <p>
+ * union and connected are linearizable; count is exact once unions stop.
+ */
+public class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent;
+    private final AtomicInteger count;
+
+    public ConcurrentUnionFind(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) parent.set(i, i);
+        count = new AtomicInteger(n);
+    }
+
+    public int count() {
+        return count.get();
+    }
+
+    public int find(int p) {
+        if (p < 0 || p >= parent.length()) throw new IllegalArgumentException();
+        while (true) {
+            int q = parent.get(p);
+            if (q == p) return p;
+            int r = parent.get(q);
+            if (q != r) parent.compareAndSet(p, q, r); // path halving
+            p = r;
+        }
+    }
+
+    public boolean connected(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) return true;
+            // rootP may have been linked meanwhile; only a root that is still one proves disjointness
+            if (parent.get(rootP) == rootP) return false;
+        }
+    }
+
+    /**
+     * Merges the sets of p and q; returns false if they were already one set.
+     */
+    public boolean union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) return false;
+            if (higher(rootP, rootQ)) {
+                int t = rootP;
+                rootP = rootQ;
+                rootQ = t;
+            }
+            if (parent.compareAndSet(rootP, rootP, rootQ)) {
+                count.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    private static boolean higher(int a, int b) {
+        int pa = priority(a);
+        int pb = priority(b);
+        return pa > pb || pa == pb && a > b;
+    }
+
+    // bijective integer hash
+    private static int priority(int x) {
+        x ^= x >>> 16;
+        x *= 0x7feb352d;
+        x ^= x >>> 15;
+        x *= 0x846ca68b;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    /**
+     * Stress test against UnionFind followed by a throughput comparison.
+     */
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 4_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int[] ps = new int[ops];
+        int[] qs = new int[ops];
+        Random random = new Random(1);
+        for (int i = 0; i < ops; i++) {
+            ps[i] = random.nextInt(n);
+            qs[i] = random.nextInt(n);
+        }
+
+        // every thread unions the same pairs in a different order; exactly one union per merge may win
+        for (int round = 0; round < 5; round++) {
+            ConcurrentUnionFind cuf = new ConcurrentUnionFind(n);
+            AtomicInteger wins = new AtomicInteger();
+            Thread[] workers = new Thread[Math.max(threads, 2)];
+            for (int t = 0; t < workers.length; t++) {
+                int offset = t * (ops / workers.length);
+                workers[t] = new Thread(() -> {
+                    int won = 0;
+                    for (int k = 0; k < ops; k++) {
+                        int i = (k + offset) % ops;
+                        if (cuf.union(ps[i], qs[i])) won++;
+                    }
+                    wins.addAndGet(won);
+                });
+            }
+            for (Thread worker : workers) worker.start();
+            for (Thread worker : workers) worker.join();
+
+            UnionFind uf = new UnionFind(n);
+            for (int i = 0; i < ops; i++) uf.union(ps[i], qs[i]);
+            if (cuf.count() != uf.count() || wins.get() != n - uf.count())
+                throw new IllegalStateException("count " + cuf.count() + " with " + wins.get() + " wins, expected " + uf.count());
+            for (int i = 0; i < 100_000; i++) {
+                int p = random.nextInt(n);
+                int q = random.nextInt(n);
+                if (cuf.connected(p, q) != uf.connected(p, q))
+                    throw new IllegalStateException("connected(" + p + ", " + q + ") differs");
+            }
+        }
+        System.out.println("stress test passed with " + Math.max(threads, 2) + " threads");
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            UnionFind uf = new UnionFind(n);
+            for (int i = 0; i < ops; i++) uf.union(ps[i], qs[i]);
+            double sequential = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            ConcurrentUnionFind cuf = new ConcurrentUnionFind(n);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                int lo = (int) ((long) ops * t / threads);
+                int hi = (int) ((long) ops * (t + 1) / threads);
+                workers[t] = new Thread(() -> {
+                    for (int i = lo; i < hi; i++) cuf.union(ps[i], qs[i]);
+                });
+            }
+            for (Thread worker : workers) worker.start();
+            for (Thread worker : workers) worker.join();
+            double concurrent = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%d unions on %d elements: UnionFind %.1f ms, ConcurrentUnionFind %.1f ms on %d threads%n",
+                    ops, n, sequential, concurrent, threads);
+        }
+    }
+}
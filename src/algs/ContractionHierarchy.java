@@ -0,0 +1,563 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Scanner;
+
+/**
+ * Contraction hierarchies for point-to-point shortest paths.
+ * <p>
+ * Preprocessing contracts the vertices one at a time, in order of twice the
+ * edge difference (shortcuts added minus arcs removed) plus the number of
+ * neighbors already contracted, updated lazily. Contracting v adds a shortcut
+ * u->w for each pair of arcs u->v->w unless a bounded witness search finds a
+ * path from u to w that avoids v and is no longer. A query then runs Dijkstra
+ * upward in the hierarchy from s and from t and takes the best meeting vertex;
+ * shortcuts are unpacked back into the original edges.
+ */
+public class ContractionHierarchy {
+    private static final int MAGIC = 0x48434c41; // "ALCH"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    private final int V;
+    private final DirectedEdge[] edges;
+    private final int[] rank;
+
+    // arcs are original edges (child1 == -1, edge = index into edges) or shortcuts over two arcs
+    private int arcs;
+    private int[] arcFrom;
+    private int[] arcTo;
+    private double[] arcWeight;
+    private int[] arcChild1;
+    private int[] arcChild2;
+    private int[] arcEdge;
+
+    // upward arcs by source and downward arcs by target, both leading to a higher rank
+    private int[] upOffsets;
+    private int[] upArcs;
+    private int[] downOffsets;
+    private int[] downArcs;
+
+    // query state, reset through the touched list
+    private double[] distF;
+    private double[] distB;
+    private int[] parentF;
+    private int[] parentB;
+    private DoubleIndexMinPQ pqF;
+    private DoubleIndexMinPQ pqB;
+    private int[] touched;
+    private int touchedCount;
+    private int s = -1;
+    private int t = -1;
+    private int meet;
+    private double distance;
+    private int settled;
+
+    public ContractionHierarchy(EdgeWeightedDigraph G) {
+        V = G.V();
+        edges = edgeArray(G);
+        rank = new int[V];
+        arcFrom = new int[Math.max(16, edges.length)];
+        arcTo = new int[arcFrom.length];
+        arcWeight = new double[arcFrom.length];
+        arcChild1 = new int[arcFrom.length];
+        arcChild2 = new int[arcFrom.length];
+        arcEdge = new int[arcFrom.length];
+        for (int i = 0; i < edges.length; i++) {
+            DirectedEdge e = edges[i];
+            if (e.weight() < 0) throw new IllegalArgumentException("edge " + e + " has negative weight");
+            if (e.from() != e.to()) addArc(e.from(), e.to(), e.weight(), -1, -1, i);
+        }
+        new Contraction().run();
+        build();
+    }
+
+    private ContractionHierarchy(int V, DirectedEdge[] edges, int[] rank) {
+        this.V = V;
+        this.edges = edges;
+        this.rank = rank;
+    }
+
+    private static DirectedEdge[] edgeArray(EdgeWeightedDigraph G) {
+        DirectedEdge[] edges = new DirectedEdge[G.E()];
+        int i = 0;
+        for (DirectedEdge e : G.edges()) edges[i++] = e;
+        return edges;
+    }
+
+    private int addArc(int from, int to, double weight, int child1, int child2, int edge) {
+        if (arcs == arcFrom.length) {
+            int capacity = 2 * arcs;
+            arcFrom = Arrays.copyOf(arcFrom, capacity);
+            arcTo = Arrays.copyOf(arcTo, capacity);
+            arcWeight = Arrays.copyOf(arcWeight, capacity);
+            arcChild1 = Arrays.copyOf(arcChild1, capacity);
+            arcChild2 = Arrays.copyOf(arcChild2, capacity);
+            arcEdge = Arrays.copyOf(arcEdge, capacity);
+        }
+        arcFrom[arcs] = from;
+        arcTo[arcs] = to;
+        arcWeight[arcs] = weight;
+        arcChild1[arcs] = child1;
+        arcChild2[arcs] = child2;
+        arcEdge[arcs] = edge;
+        return arcs++;
+    }
+
+    /**
+     * State that only lives during preprocessing.
+     */
+    private class Contraction {
+        private final int[][] out = new int[V][];
+        private final int[][] in = new int[V][];
+        private final int[] outSize = new int[V];
+        private final int[] inSize = new int[V];
+        private final boolean[] contracted = new boolean[V];
+        private final int[] deletedNeighbors = new int[V];
+        private final double[] dist = new double[V];
+        private final int[] touched = new int[V];
+        private final DoubleIndexMinPQ witnessPQ = new DoubleIndexMinPQ(V);
+        private boolean[] replaced = new boolean[arcFrom.length];
+        private int touchedCount;
+
+        Contraction() {
+            for (int v = 0; v < V; v++) {
+                out[v] = new int[4];
+                in[v] = new int[4];
+                dist[v] = Double.POSITIVE_INFINITY;
+            }
+            for (int a = 0; a < arcs; a++) link(a);
+        }
+
+        private void link(int a) {
+            int u = arcFrom[a], w = arcTo[a];
+            if (outSize[u] == out[u].length) out[u] = Arrays.copyOf(out[u], 2 * outSize[u]);
+            out[u][outSize[u]++] = a;
+            if (inSize[w] == in[w].length) in[w] = Arrays.copyOf(in[w], 2 * inSize[w]);
+            in[w][inSize[w]++] = a;
+        }
+
+        private void unlink(int a) {
+            remove(out, outSize, arcFrom[a], a);
+            remove(in, inSize, arcTo[a], a);
+        }
+
+        // a replaced arc is no child of any shortcut: both its ends are still uncontracted
+        private void replace(int a) {
+            unlink(a);
+            if (a >= replaced.length) replaced = Arrays.copyOf(replaced, arcFrom.length);
+            replaced[a] = true;
+        }
+
+        private void remove(int[][] lists, int[] sizes, int v, int a) {
+            int[] list = lists[v];
+            for (int i = 0; i < sizes[v]; i++) {
+                if (list[i] == a) {
+                    list[i] = list[--sizes[v]];
+                    return;
+                }
+            }
+        }
+
+        void run() {
+            DoubleIndexMinPQ order = new DoubleIndexMinPQ(V);
+            for (int v = 0; v < V; v++) order.insert(v, priority(v));
+            int next = 0;
+            while (!order.isEmpty()) {
+                int v = order.delMin();
+                double p = priority(v);
+                if (!order.isEmpty() && p > order.minKey()) {
+                    order.insert(v, p);
+                    continue;
+                }
+                contract(v, true);
+                contracted[v] = true;
+                rank[v] = next++;
+                for (int i = 0; i < inSize[v]; i++) remove(out, outSize, arcFrom[in[v][i]], in[v][i]);
+                for (int i = 0; i < outSize[v]; i++) remove(in, inSize, arcTo[out[v][i]], out[v][i]);
+                for (int i = 0; i < outSize[v]; i++) {
+                    int w = arcTo[out[v][i]];
+                    if (!contracted[w]) deletedNeighbors[w]++;
+                }
+                for (int i = 0; i < inSize[v]; i++) {
+                    int u = arcFrom[in[v][i]];
+                    if (!contracted[u]) deletedNeighbors[u]++;
+                }
+                for (int i = 0; i < outSize[v]; i++) {
+                    int w = arcTo[out[v][i]];
+                    if (order.contains(w)) order.changeKey(w, priority(w));
+                }
+                for (int i = 0; i < inSize[v]; i++) {
+                    int u = arcFrom[in[v][i]];
+                    if (order.contains(u)) order.changeKey(u, priority(u));
+                }
+            }
+            removeReplaced();
+        }
+
+        // drops the arcs that shortcuts replaced and renumbers the rest, children included
+        private void removeReplaced() {
+            int[] renumber = new int[arcs];
+            int kept = 0;
+            for (int a = 0; a < arcs; a++) {
+                if (a < replaced.length && replaced[a]) {
+                    renumber[a] = -1;
+                    continue;
+                }
+                renumber[a] = kept;
+                arcFrom[kept] = arcFrom[a];
+                arcTo[kept] = arcTo[a];
+                arcWeight[kept] = arcWeight[a];
+                arcChild1[kept] = arcChild1[a] == -1 ? -1 : renumber[arcChild1[a]];
+                arcChild2[kept] = arcChild2[a] == -1 ? -1 : renumber[arcChild2[a]];
+                arcEdge[kept] = arcEdge[a];
+                kept++;
+            }
+            arcs = kept;
+            arcFrom = Arrays.copyOf(arcFrom, kept);
+            arcTo = Arrays.copyOf(arcTo, kept);
+            arcWeight = Arrays.copyOf(arcWeight, kept);
+            arcChild1 = Arrays.copyOf(arcChild1, kept);
+            arcChild2 = Arrays.copyOf(arcChild2, kept);
+            arcEdge = Arrays.copyOf(arcEdge, kept);
+        }
+
+        private double priority(int v) {
+            int degree = 0;
+            for (int i = 0; i < outSize[v]; i++) if (!contracted[arcTo[out[v][i]]]) degree++;
+            for (int i = 0; i < inSize[v]; i++) if (!contracted[arcFrom[in[v][i]]]) degree++;
+            return 2 * (contract(v, false) - degree) + deletedNeighbors[v];
+        }
+
+        // returns the number of shortcuts contracting v needs, adding them when add is true
+        private int contract(int v, boolean add) {
+            int shortcuts = 0;
+            for (int i = 0; i < inSize[v]; i++) {
+                int a = in[v][i];
+                int u = arcFrom[a];
+                if (contracted[u]) continue;
+                double maxDist = 0.0;
+                for (int j = 0; j < outSize[v]; j++) {
+                    int b = out[v][j];
+                    if (!contracted[arcTo[b]] && arcTo[b] != u)
+                        maxDist = Math.max(maxDist, arcWeight[a] + arcWeight[b]);
+                }
+                witnessSearch(u, v, maxDist);
+                for (int j = 0; j < outSize[v]; j++) {
+                    int b = out[v][j];
+                    int w = arcTo[b];
+                    if (contracted[w] || w == u) continue;
+                    double weight = arcWeight[a] + arcWeight[b];
+                    if (dist[w] <= weight) continue;
+                    shortcuts++;
+                    if (add) {
+                        // any arc u->w already present is longer, or it would have been a witness
+                        for (int k = 0; k < outSize[u]; k++) {
+                            if (arcTo[out[u][k]] == w) {
+                                replace(out[u][k]);
+                                break;
+                            }
+                        }
+                        link(addArc(u, w, weight, a, b, -1));
+                        // later pairs from u see this shortcut as a witness
+                        if (dist[w] == Double.POSITIVE_INFINITY) touched[touchedCount++] = w;
+                        dist[w] = weight;
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        // Dijkstra from u over uncontracted vertices other than v, up to maxDist or the settle limit
+        private void witnessSearch(int u, int v, double maxDist) {
+            for (int i = 0; i < touchedCount; i++) dist[touched[i]] = Double.POSITIVE_INFINITY;
+            touchedCount = 0;
+            witnessPQ.clear();
+            dist[u] = 0.0;
+            touched[touchedCount++] = u;
+            witnessPQ.insert(u, 0.0);
+            int count = 0;
+            while (!witnessPQ.isEmpty() && count++ < WITNESS_SETTLE_LIMIT) {
+                if (witnessPQ.minKey() > maxDist) break;
+                int x = witnessPQ.delMin();
+                for (int i = 0; i < outSize[x]; i++) {
+                    int a = out[x][i];
+                    int y = arcTo[a];
+                    if (y == v || contracted[y]) continue;
+                    double d = dist[x] + arcWeight[a];
+                    if (d < dist[y]) {
+                        if (dist[y] == Double.POSITIVE_INFINITY) touched[touchedCount++] = y;
+                        dist[y] = d;
+                        if (witnessPQ.contains(y)) witnessPQ.decreaseKey(y, d);
+                        else witnessPQ.insert(y, d);
+                    }
+                }
+            }
+        }
+    }
+
+    private void build() {
+        upOffsets = new int[V + 1];
+        downOffsets = new int[V + 1];
+        for (int a = 0; a < arcs; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) upOffsets[arcFrom[a] + 1]++;
+            else downOffsets[arcTo[a] + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        upArcs = new int[upOffsets[V]];
+        downArcs = new int[downOffsets[V]];
+        int[] upNext = Arrays.copyOf(upOffsets, V);
+        int[] downNext = Arrays.copyOf(downOffsets, V);
+        for (int a = 0; a < arcs; a++) {
+            if (rank[arcFrom[a]] < rank[arcTo[a]]) upArcs[upNext[arcFrom[a]]++] = a;
+            else downArcs[downNext[arcTo[a]]++] = a;
+        }
+
+        distF = new double[V];
+        distB = new double[V];
+        parentF = new int[V];
+        parentB = new int[V];
+        pqF = new DoubleIndexMinPQ(V);
+        pqB = new DoubleIndexMinPQ(V);
+        touched = new int[2 * V];
+        for (int v = 0; v < V; v++) {
+            distF[v] = Double.POSITIVE_INFINITY;
+            distB[v] = Double.POSITIVE_INFINITY;
+            parentF[v] = -1;
+            parentB[v] = -1;
+        }
+    }
+
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Number of shortcuts added by the contraction.
+     */
+    public int shortcuts() {
+        int count = 0;
+        for (int a = 0; a < arcs; a++) if (arcChild1[a] != -1) count++;
+        return count;
+    }
+
+    private void search(int s, int t) {
+        validateVertex(s);
+        validateVertex(t);
+        if (s == this.s && t == this.t) return;
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distF[v] = Double.POSITIVE_INFINITY;
+            distB[v] = Double.POSITIVE_INFINITY;
+            parentF[v] = -1;
+            parentB[v] = -1;
+        }
+        touchedCount = 0;
+        pqF.clear();
+        pqB.clear();
+        this.s = s;
+        this.t = t;
+        settled = 0;
+
+        distF[s] = 0.0;
+        distB[t] = 0.0;
+        touched[touchedCount++] = s;
+        touched[touchedCount++] = t;
+        pqF.insert(s, 0.0);
+        pqB.insert(t, 0.0);
+        distance = s == t ? 0.0 : Double.POSITIVE_INFINITY;
+        meet = s == t ? s : -1;
+
+        // each direction may stop once its smallest key reaches the best meeting distance
+        while (true) {
+            boolean forward = !pqF.isEmpty() && pqF.minKey() < distance;
+            boolean backward = !pqB.isEmpty() && pqB.minKey() < distance;
+            if (!forward && !backward) break;
+            if (forward && (!backward || pqF.minKey() <= pqB.minKey())) {
+                int v = pqF.delMin();
+                settled++;
+                for (int i = upOffsets[v]; i < upOffsets[v + 1]; i++) {
+                    int a = upArcs[i];
+                    relax(a, v, arcTo[a], distF, parentF, pqF, distB);
+                }
+            } else {
+                int v = pqB.delMin();
+                settled++;
+                for (int i = downOffsets[v]; i < downOffsets[v + 1]; i++) {
+                    int a = downArcs[i];
+                    relax(a, v, arcFrom[a], distB, parentB, pqB, distF);
+                }
+            }
+        }
+    }
+
+    private void relax(int a, int v, int w, double[] dist, int[] parent, DoubleIndexMinPQ pq, double[] other) {
+        double d = dist[v] + arcWeight[a];
+        if (d < dist[w]) {
+            if (dist[w] == Double.POSITIVE_INFINITY && other[w] == Double.POSITIVE_INFINITY) touched[touchedCount++] = w;
+            dist[w] = d;
+            parent[w] = a;
+            if (pq.contains(w)) pq.decreaseKey(w, d);
+            else pq.insert(w, d);
+            if (d + other[w] < distance) {
+                distance = d + other[w];
+                meet = w;
+            }
+        }
+    }
+
+    public double distTo(int s, int t) {
+        search(s, t);
+        return distance;
+    }
+
+    public boolean hasPathTo(int s, int t) {
+        search(s, t);
+        return distance < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int s, int t) {
+        search(s, t);
+        if (distance == Double.POSITIVE_INFINITY) return null;
+        int count = 0;
+        int[] up = new int[16];
+        for (int v = meet; parentF[v] != -1; v = arcFrom[parentF[v]]) {
+            if (count == up.length) up = Arrays.copyOf(up, 2 * count);
+            up[count++] = parentF[v];
+        }
+        Queue<DirectedEdge> path = new Queue<>();
+        IntStack stack = new IntStack();
+        for (int i = count - 1; i >= 0; i--) unpack(up[i], stack, path);
+        for (int v = meet; parentB[v] != -1; v = arcTo[parentB[v]]) unpack(parentB[v], stack, path);
+        return path;
+    }
+
+    // appends the original edges of arc a to path, using stack as scratch space
+    private void unpack(int a, IntStack stack, Queue<DirectedEdge> path) {
+        stack.push(a);
+        while (!stack.isEmpty()) {
+            int b = stack.pop();
+            if (arcChild1[b] == -1) {
+                path.enqueue(edges[arcEdge[b]]);
+            } else {
+                stack.push(arcChild2[b]);
+                stack.push(arcChild1[b]);
+            }
+        }
+    }
+
+    /**
+     * Number of vertices removed from either priority queue by the last query.
+     */
+    public int settled() {
+        return settled;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    /**
+     * Writes the contraction order and every arc. Original edges are stored by
+     * their position in {@code G.edges()}, so loading needs the same graph.
+     */
+    public void save(Path file) throws IOException {
+        long bytes = HEADER_BYTES + 4L + Integer.BYTES * (long) V
+                + (long) arcs * (5 * Integer.BYTES + Double.BYTES);
+        if (bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Hierarchy is too large to save");
+        ByteBuffer buf = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(V).putInt(arcs).putInt(edges.length);
+        for (int v = 0; v < V; v++) buf.putInt(rank[v]);
+        for (int a = 0; a < arcs; a++) {
+            buf.putInt(arcFrom[a]).putInt(arcTo[a]).putDouble(arcWeight[a])
+                    .putInt(arcChild1[a]).putInt(arcChild2[a]).putInt(arcEdge[a]);
+        }
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    public static ContractionHierarchy load(Path file, EdgeWeightedDigraph G) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES + 4) throw new IllegalArgumentException("File " + file + " is not a hierarchy file");
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != MAGIC) throw new IllegalArgumentException("File " + file + " is not a hierarchy file");
+            int version = buf.getInt();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported hierarchy file version " + version);
+            int V = buf.getInt();
+            int arcs = buf.getInt();
+            int E = buf.getInt();
+            if (V != G.V() || E != G.E()) throw new IllegalArgumentException("Hierarchy belongs to a different graph");
+            if (arcs < 0 || ch.size() != HEADER_BYTES + 4L + Integer.BYTES * (long) V
+                    + (long) arcs * (5 * Integer.BYTES + Double.BYTES))
+                throw new IllegalArgumentException("Hierarchy file " + file + " is corrupt");
+            int[] rank = new int[V];
+            for (int v = 0; v < V; v++) rank[v] = buf.getInt();
+            ContractionHierarchy ch2 = new ContractionHierarchy(V, edgeArray(G), rank);
+            ch2.arcFrom = new int[arcs];
+            ch2.arcTo = new int[arcs];
+            ch2.arcWeight = new double[arcs];
+            ch2.arcChild1 = new int[arcs];
+            ch2.arcChild2 = new int[arcs];
+            ch2.arcEdge = new int[arcs];
+            for (int a = 0; a < arcs; a++) {
+                ch2.arcFrom[a] = buf.getInt();
+                ch2.arcTo[a] = buf.getInt();
+                ch2.arcWeight[a] = buf.getDouble();
+                ch2.arcChild1[a] = buf.getInt();
+                ch2.arcChild2[a] = buf.getInt();
+                ch2.arcEdge[a] = buf.getInt();
+            }
+            ch2.arcs = arcs;
+            ch2.build();
+            return ch2;
+        }
+    }
+
+    /**
+     * Usage: graph-file hierarchy-file s t. The hierarchy file is created when missing.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        Path saved = Path.of(args[1]);
+        int s = Integer.parseInt(args[2]);
+        int t = Integer.parseInt(args[3]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            ContractionHierarchy ch;
+            if (Files.exists(saved)) {
+                ch = load(saved, G);
+            } else {
+                ch = new ContractionHierarchy(G);
+                ch.save(saved);
+            }
+            if (ch.hasPathTo(s, t)) {
+                System.out.printf("%d to %d: (%.2f)  ", s, t, ch.distTo(s, t));
+                for (DirectedEdge e : ch.pathTo(s, t)) {
+                    System.out.print(e + "   ");
+                }
+                System.out.println();
+            } else {
+                System.out.printf("%d to %d: no path\n", s, t);
+            }
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
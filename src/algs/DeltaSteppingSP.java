@@ -0,0 +1,286 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single-source shortest paths by delta-stepping (Meyer and Sanders).
+ * <p>
+ * Vertices wait in buckets of width delta by tentative distance. The smallest
+ * non-empty bucket is emptied repeatedly, relaxing only the light edges
+ * (weight at most delta) of its vertices, since those can refill the same
+ * bucket; once it stays empty the heavy edges of every vertex removed from it
+ * are relaxed once. Each batch of relaxations runs on a fork-join pool and
+ * lowers distances with a compare-and-set minimum, so the vertices settled by
+ * one bucket are processed in parallel. Improved vertices, each counted once
+ * per batch, reach a shared {@link ConcurrentIntQueue} in chunks. The buckets
+ * are kept circularly, since pending distances never span more than the
+ * largest weight.
+ * <p>
+ * Parents are not tracked during the search: every reachable vertex has an
+ * edge with distTo[v] + weight == distTo[w] from a vertex reachable the same
+ * way, so a final pass over those tight edges rebuilds the tree.
+ */
+public class DeltaSteppingSP {
+    private static final int GRAIN = 256;
+    private static final int CHUNK = 64;
+    private static final int MAX_BUCKETS = 1 << 24;
+
+    private final CompactEdgeWeightedDigraph G;
+    private final double delta;
+    private final ForkJoinPool pool;
+    private final AtomicLongArray dist;
+    private final double[] distTo;
+    private final int[] edgeTo;
+    private final ConcurrentIntQueue improved;
+    private final AtomicIntegerArray queued; // batch that last queued each vertex
+    private int batch;
+
+    private int[][] buckets;
+    private int[] bucketSize;
+
+    public DeltaSteppingSP(EdgeWeightedDigraph G, int s, double delta) {
+        this(new CompactEdgeWeightedDigraph(G), s, delta);
+    }
+
+    public DeltaSteppingSP(CompactEdgeWeightedDigraph G, int s, double delta) {
+        this(G, s, delta, ForkJoinPool.commonPool());
+    }
+
+    public DeltaSteppingSP(CompactEdgeWeightedDigraph G, int s, double delta, ForkJoinPool pool) {
+        if (!(delta > 0) || Double.isInfinite(delta)) throw new IllegalArgumentException("delta must be positive");
+        this.G = G;
+        this.delta = delta;
+        this.pool = pool;
+        int V = G.V();
+        if (s < 0 || s >= V) throw new IllegalArgumentException("vertex " + s + " is not between 0 and " + (V - 1));
+        double maxWeight = 0.0;
+        for (int i = 0; i < G.E(); i++) {
+            double weight = G.weights()[i];
+            if (weight < 0) throw new IllegalArgumentException("edge " + G.edge(i) + " has negative weight");
+            if (weight < Double.POSITIVE_INFINITY) maxWeight = Math.max(maxWeight, weight);
+        }
+        double count = Math.floor(maxWeight / delta) + 2;
+        if (count > MAX_BUCKETS) throw new IllegalArgumentException("delta is too small for the largest weight");
+        buckets = new int[(int) count][];
+        bucketSize = new int[(int) count];
+        for (int b = 0; b < buckets.length; b++) buckets[b] = new int[4];
+
+        dist = new AtomicLongArray(V);
+        long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < V; v++) dist.set(v, infinity);
+        dist.set(s, Double.doubleToLongBits(0.0));
+        improved = new ConcurrentIntQueue(Math.max(V, 1));
+        queued = new AtomicIntegerArray(V);
+        run(s);
+
+        distTo = new double[V];
+        for (int v = 0; v < V; v++) distTo[v] = Double.longBitsToDouble(dist.get(v));
+        edgeTo = new int[V];
+        tree(s);
+    }
+
+    private long bucketOf(int v) {
+        return (long) (Double.longBitsToDouble(dist.get(v)) / delta);
+    }
+
+    private void add(long bucket, int v) {
+        int b = (int) (bucket % buckets.length);
+        if (bucketSize[b] == buckets[b].length) buckets[b] = Arrays.copyOf(buckets[b], 2 * bucketSize[b]);
+        buckets[b][bucketSize[b]++] = v;
+    }
+
+    private void run(int s) {
+        int V = G.V();
+        // removed[v] == phase marks v as removed from the current bucket, inFrontier[v] == round dedups a round
+        int[] removed = new int[V];
+        int[] inFrontier = new int[V];
+        int round = 0;
+        int[] settledHere = new int[16];
+        add(0, s);
+        long current = 0;
+        int phase = 0;
+        while (true) {
+            int empty = 0;
+            while (bucketSize[(int) (current % buckets.length)] == 0 && empty < buckets.length) {
+                current++;
+                empty++;
+            }
+            if (empty == buckets.length) break;
+            phase++;
+            int settledCount = 0;
+            int b = (int) (current % buckets.length);
+            while (bucketSize[b] > 0) {
+                int[] entries = buckets[b];
+                int size = bucketSize[b];
+                buckets[b] = new int[4];
+                bucketSize[b] = 0;
+                round++;
+                int n = 0;
+                for (int i = 0; i < size; i++) {
+                    int v = entries[i];
+                    if (inFrontier[v] == round || bucketOf(v) != current) continue;
+                    inFrontier[v] = round;
+                    entries[n++] = v;
+                    if (removed[v] != phase) {
+                        removed[v] = phase;
+                        if (settledCount == settledHere.length) settledHere = Arrays.copyOf(settledHere, 2 * settledCount);
+                        settledHere[settledCount++] = v;
+                    }
+                }
+                relax(entries, n, true);
+            }
+            relax(settledHere, settledCount, false);
+            current++;
+        }
+    }
+
+    // relaxes the light or heavy edges of vertices[0..n) in parallel and files every improved vertex
+    private void relax(int[] vertices, int n, boolean light) {
+        batch++;
+        pool.invoke(new Relax(vertices, 0, n, light));
+        int[] chunk = new int[CHUNK];
+        for (int k; (k = improved.drainTo(chunk, 0, CHUNK)) > 0; ) {
+            for (int i = 0; i < k; i++) add(bucketOf(chunk[i]), chunk[i]);
+        }
+    }
+
+    private class Relax extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] vertices;
+        private final int lo;
+        private final int hi;
+        private final boolean light;
+
+        Relax(int[] vertices, int lo, int hi, boolean light) {
+            this.vertices = vertices;
+            this.lo = lo;
+            this.hi = hi;
+            this.light = light;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Relax(vertices, lo, mid, light), new Relax(vertices, mid, hi, light));
+                return;
+            }
+            int[] offsets = G.offsets();
+            int[] targets = G.targets();
+            double[] weights = G.weights();
+            int[] out = new int[CHUNK];
+            int count = 0;
+            for (int k = lo; k < hi; k++) {
+                int v = vertices[k];
+                double dv = Double.longBitsToDouble(dist.get(v));
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if ((weights[i] <= delta) != light) continue;
+                    int w = targets[i];
+                    if (relax(w, dv + weights[i]) && queued.getAndSet(w, batch) != batch) {
+                        if (count == CHUNK) {
+                            improved.offerAll(out, 0, count);
+                            count = 0;
+                        }
+                        out[count++] = w;
+                    }
+                }
+            }
+            // fits: every vertex is queued at most once per batch
+            improved.offerAll(out, 0, count);
+        }
+
+        // atomic minimum; the bits of non-negative doubles order like the values
+        private boolean relax(int w, double d) {
+            long bits = Double.doubleToLongBits(d);
+            while (true) {
+                long current = dist.get(w);
+                if (bits >= current) return false;
+                if (dist.compareAndSet(w, current, bits)) return true;
+            }
+        }
+    }
+
+    private void tree(int s) {
+        int[] offsets = G.offsets();
+        int[] targets = G.targets();
+        double[] weights = G.weights();
+        Arrays.fill(edgeTo, -1);
+        boolean[] marked = new boolean[G.V()];
+        int[] queue = new int[G.V()];
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        marked[s] = true;
+        while (head < tail) {
+            int v = queue[head++];
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                if (!marked[w] && distTo[v] + weights[i] == distTo[w]) {
+                    marked[w] = true;
+                    edgeTo[w] = i;
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<>();
+        for (int i = edgeTo[v]; i != -1; i = edgeTo[G.from(i)]) {
+            path.push(G.edge(i));
+        }
+        return path;
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int s = Integer.parseInt(args[1]);
+        double delta = Double.parseDouble(args[2]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            DeltaSteppingSP sp = new DeltaSteppingSP(G, s, delta);
+
+            for (int v = 0; v < G.V(); v++) {
+                if (sp.hasPathTo(v)) {
+                    System.out.printf("%d to %d: (%.2f)  ", s, v, sp.distTo(v));
+                    for (DirectedEdge e : sp.pathTo(v)) {
+                        System.out.print(e + "   ");
+                    }
+                    System.out.println();
+                } else {
+                    System.out.printf("%d to %d: no path\n", s, v);
+                }
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
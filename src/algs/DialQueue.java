@@ -0,0 +1,67 @@
+package algs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Dial's bucket queue: a monotone priority queue of int values with integer
+ * keys in a sliding window [last, last + C], where last is the last key removed.
+ * The C + 1 buckets are used circularly, so insert is O(1) and delMin is O(1)
+ * amortized plus the number of empty buckets skipped.
+ */
+public class DialQueue {
+    private static final int MAX_BUCKETS = Integer.MAX_VALUE - 8; // the largest array most JVMs allocate
+
+    private final int[][] buckets;
+    private final int[] sizes;
+    private final long C;
+    private long last;
+    private int cursor;
+    private int n;
+
+    public DialQueue(int C) {
+        if (C < 0) throw new IllegalArgumentException("Maximum key difference must be non-negative");
+        if (C >= MAX_BUCKETS) throw new IllegalArgumentException("Maximum key difference must be below " + MAX_BUCKETS);
+        this.C = C;
+        buckets = new int[C + 1][];
+        sizes = new int[C + 1];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public void insert(int value, long key) {
+        if (key < last || key - last > C)
+            throw new IllegalArgumentException("key " + key + " is outside [" + last + ", " + (last + C) + "]");
+        int b = (int) ((cursor + (key - last)) % (C + 1));
+        if (buckets[b] == null) buckets[b] = new int[4];
+        else if (sizes[b] == buckets[b].length) buckets[b] = Arrays.copyOf(buckets[b], 2 * sizes[b]);
+        buckets[b][sizes[b]++] = value;
+        n++;
+    }
+
+    public long minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        advance();
+        return last;
+    }
+
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        advance();
+        n--;
+        return buckets[cursor][--sizes[cursor]];
+    }
+
+    private void advance() {
+        while (sizes[cursor] == 0) {
+            cursor = cursor == C ? 0 : cursor + 1;
+            last++;
+        }
+    }
+}
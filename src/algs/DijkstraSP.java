@@ -5,15 +5,69 @@ import java.io.FileNotFoundException;
 import java.util.Scanner;
 
 public class DijkstraSP {
+    private static final double MAX_EXACT = 9007199254740992.0; // 2^53
+    private static final int MAX_DIAL_BUCKETS = 1 << 16;
+
+    /**
+     * Priority queue used by the search. RADIX_HEAP and DIAL need non-negative
+     * integer weights, and DIAL, with one bucket per unit of weight, weights
+     * below 2^16; AUTO picks DIAL for small integer weights, RADIX_HEAP for
+     * larger ones and the d-ary heap otherwise.
+     */
+    public enum Mode { HEAP, RADIX_HEAP, DIAL, AUTO }
+
     private double[] distTo;
     private DirectedEdge[] edgeTo;
-    private IndexMinPQ<Double> pq;
+    private DoubleIndexMinPQ pq;
 
     public DijkstraSP(EdgeWeightedDigraph G, int s) {
+        this(G, s, 4);
+    }
+
+    /**
+     * Computes the shortest-path tree from s using a d-ary heap.
+     */
+    public DijkstraSP(EdgeWeightedDigraph G, int s, int d) {
+        checkWeights(G);
+        init(G, s);
+        heap(G, s, d);
+    }
+
+    public DijkstraSP(EdgeWeightedDigraph G, int s, Mode mode) {
+        double maxWeight = checkWeights(G);
+        boolean integral = maxWeight >= 0 && maxWeight * Math.max(G.V() - 1, 1) <= MAX_EXACT;
+        if (mode == Mode.AUTO) {
+            if (!integral) mode = Mode.HEAP;
+            else if (maxWeight < MAX_DIAL_BUCKETS) mode = Mode.DIAL;
+            else mode = Mode.RADIX_HEAP;
+        } else if (mode != Mode.HEAP && !integral) {
+            throw new IllegalArgumentException("edge weights must be integers for mode " + mode);
+        } else if (mode == Mode.DIAL && maxWeight >= MAX_DIAL_BUCKETS) {
+            throw new IllegalArgumentException("edge weights must be below " + MAX_DIAL_BUCKETS + " for mode DIAL");
+        }
+        init(G, s);
+        switch (mode) {
+            case RADIX_HEAP -> radix(G, s);
+            case DIAL -> dial(G, s, (int) maxWeight);
+            default -> heap(G, s, 4);
+        }
+    }
+
+    // returns the largest weight if every weight is an integer small enough to sum exactly, otherwise -1
+    private static double checkWeights(EdgeWeightedDigraph G) {
+        double max = 0.0;
         for (DirectedEdge e : G.edges()) {
             if (e.weight() < 0)
                 throw new IllegalArgumentException("edge " + e + " has negative weight");
+            if (max >= 0 && e.weight() <= MAX_EXACT && e.weight() == Math.rint(e.weight()))
+                max = Math.max(max, e.weight());
+            else
+                max = -1;
         }
+        return max;
+    }
+
+    private void init(EdgeWeightedDigraph G, int s) {
         distTo = new double[G.V()];
         edgeTo = new DirectedEdge[G.V()];
         validateVertex(s);
@@ -21,7 +75,10 @@ public class DijkstraSP {
             distTo[v] = Double.POSITIVE_INFINITY;
         }
         distTo[s] = 0.0;
-        pq = new IndexMinPQ<>(G.V());
+    }
+
+    private void heap(EdgeWeightedDigraph G, int s, int d) {
+        pq = new DoubleIndexMinPQ(G.V(), d);
         pq.insert(s, 0.0);
         while (!pq.isEmpty()) {
             int v = pq.delMin();
@@ -31,6 +88,45 @@ public class DijkstraSP {
         }
     }
 
+    // the monotone queues have no decrease-key, so a vertex is inserted again on
+    // every improvement and stale entries are skipped when they come out
+
+    private void radix(EdgeWeightedDigraph G, int s) {
+        RadixHeap queue = new RadixHeap();
+        queue.insert(s, 0);
+        while (!queue.isEmpty()) {
+            long dist = queue.minKey();
+            int v = queue.delMin();
+            if (dist > distTo[v]) continue;
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
+                if (distTo[w] > distTo[v] + e.weight()) {
+                    distTo[w] = distTo[v] + e.weight();
+                    edgeTo[w] = e;
+                    queue.insert(w, (long) distTo[w]);
+                }
+            }
+        }
+    }
+
+    private void dial(EdgeWeightedDigraph G, int s, int maxWeight) {
+        DialQueue queue = new DialQueue(maxWeight);
+        queue.insert(s, 0);
+        while (!queue.isEmpty()) {
+            long dist = queue.minKey();
+            int v = queue.delMin();
+            if (dist > distTo[v]) continue;
+            for (DirectedEdge e : G.adj(v)) {
+                int w = e.to();
+                if (distTo[w] > distTo[v] + e.weight()) {
+                    distTo[w] = distTo[v] + e.weight();
+                    edgeTo[w] = e;
+                    queue.insert(w, (long) distTo[w]);
+                }
+            }
+        }
+    }
+
     private void relax(DirectedEdge e) {
         int v = e.from();
         int w = e.to();
@@ -0,0 +1,237 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+/**
+ * Long-lived Dijkstra query object over a {@link CompactEdgeWeightedDigraph}.
+ * <p>
+ * All arrays are allocated once. Every search starts a new epoch, and an entry
+ * whose stamp is not the current epoch reads as unreached, so starting a query
+ * costs nothing for the vertices the previous one touched. Paths are written
+ * into caller-supplied buffers, so a stream of queries allocates nothing.
+ * <p>
+ * A search can stop once a target, or a set of targets, is settled. The
+ * answers are then final only for settled vertices; others hold the tentative
+ * distance of the interrupted search.
+ * <p>
+ * Not thread-safe: use one workspace per thread.
+ */
+public class DijkstraWorkspace {
+    private final CompactEdgeWeightedDigraph G;
+    private final double[] distTo;
+    private final int[] edgeTo;
+    private final int[] reached;
+    private final int[] settled;
+    private final int[] target;
+    private final DoubleIndexMinPQ pq;
+    private int epoch;
+    private int source = -1;
+    private int settledCount;
+
+    public DijkstraWorkspace(CompactEdgeWeightedDigraph G) {
+        this(G, 4);
+    }
+
+    public DijkstraWorkspace(CompactEdgeWeightedDigraph G, int d) {
+        double[] weights = G.weights();
+        for (int i = 0; i < G.E(); i++) {
+            if (weights[i] < 0)
+                throw new IllegalArgumentException("edge " + G.edge(i) + " has negative weight");
+        }
+        this.G = G;
+        int V = G.V();
+        distTo = new double[V];
+        edgeTo = new int[V];
+        reached = new int[V];
+        settled = new int[V];
+        target = new int[V];
+        pq = new DoubleIndexMinPQ(V, d);
+    }
+
+    /**
+     * Computes the full shortest-path tree from s.
+     */
+    public void search(int s) {
+        start(s);
+        run(0);
+    }
+
+    /**
+     * Searches from s until t is settled.
+     */
+    public void search(int s, int t) {
+        validateVertex(t);
+        start(s);
+        target[t] = epoch;
+        run(1);
+    }
+
+    /**
+     * Searches from s until every vertex in targets is settled; with no
+     * targets, settles nothing.
+     */
+    public void search(int s, int[] targets) {
+        for (int t : targets) validateVertex(t);
+        start(s);
+        int remaining = 0;
+        for (int t : targets) {
+            if (target[t] != epoch) {
+                target[t] = epoch;
+                remaining++;
+            }
+        }
+        if (remaining > 0) run(remaining);
+    }
+
+    private void start(int s) {
+        validateVertex(s);
+        pq.clear();
+        if (++epoch == Integer.MAX_VALUE) {
+            // stamps from earlier epochs could collide after wrapping, so clear them once
+            for (int v = 0; v < reached.length; v++) {
+                reached[v] = 0;
+                settled[v] = 0;
+                target[v] = 0;
+            }
+            epoch = 1;
+        }
+        source = s;
+        settledCount = 0;
+        reached[s] = epoch;
+        distTo[s] = 0.0;
+        edgeTo[s] = -1;
+        pq.insert(s, 0.0);
+    }
+
+    // remaining == 0 runs to completion
+    private void run(int remaining) {
+        int[] offsets = G.offsets();
+        int[] targets = G.targets();
+        double[] weights = G.weights();
+        boolean bounded = remaining > 0;
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            settled[v] = epoch;
+            settledCount++;
+            if (bounded && target[v] == epoch && --remaining == 0) return;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                double dist = distTo[v] + weights[i];
+                if (reached[w] != epoch) {
+                    if (dist == Double.POSITIVE_INFINITY) continue;
+                    reached[w] = epoch;
+                    distTo[w] = dist;
+                    edgeTo[w] = i;
+                    pq.insert(w, dist);
+                } else if (distTo[w] > dist) {
+                    distTo[w] = dist;
+                    edgeTo[w] = i;
+                    pq.decreaseKey(w, dist);
+                }
+            }
+        }
+    }
+
+    public int source() {
+        return source;
+    }
+
+    public double distTo(int v) {
+        validateVertex(v);
+        return reached[v] == epoch ? distTo[v] : Double.POSITIVE_INFINITY;
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return reached[v] == epoch;
+    }
+
+    public boolean isSettled(int v) {
+        validateVertex(v);
+        return settled[v] == epoch;
+    }
+
+    /**
+     * Number of vertices settled by the last search.
+     */
+    public int settled() {
+        return settledCount;
+    }
+
+    /**
+     * Writes the indices of the edges on the path to v, in order from the
+     * source, into edges and returns how many there are, or -1 if there is no
+     * path.
+     */
+    public int pathTo(int v, int[] edges) {
+        int length = length(v);
+        if (length < 0) return -1;
+        if (edges.length < length) throw new IllegalArgumentException("buffer holds fewer than " + length + " edges");
+        int k = length;
+        for (int i = edgeTo[v]; i != -1; i = edgeTo[G.from(i)]) {
+            edges[--k] = i;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the vertices on the path to v, from the source to v, into
+     * vertices and returns how many there are, or -1 if there is no path.
+     */
+    public int verticesTo(int v, int[] vertices) {
+        int length = length(v);
+        if (length < 0) return -1;
+        if (vertices.length < length + 1) throw new IllegalArgumentException("buffer holds fewer than " + (length + 1) + " vertices");
+        int k = length;
+        vertices[k] = v;
+        for (int i = edgeTo[v]; i != -1; i = edgeTo[G.from(i)]) {
+            vertices[--k] = G.from(i);
+        }
+        return length + 1;
+    }
+
+    private int length(int v) {
+        if (!hasPathTo(v)) return -1;
+        int length = 0;
+        for (int i = edgeTo[v]; i != -1; i = edgeTo[G.from(i)]) length++;
+        return length;
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            CompactEdgeWeightedDigraph G = new CompactEdgeWeightedDigraph(new EdgeWeightedDigraph(in));
+            DijkstraWorkspace sp = new DijkstraWorkspace(G);
+            int[] path = new int[G.V()];
+
+            for (int s = 0; s < G.V(); s++) {
+                for (int t = 0; t < G.V(); t++) {
+                    sp.search(s, t);
+                    int n = sp.verticesTo(t, path);
+                    if (n < 0) {
+                        System.out.printf("%d to %d: no path\n", s, t);
+                        continue;
+                    }
+                    System.out.printf("%d to %d: (%.2f)  ", s, t, sp.distTo(t));
+                    for (int k = 0; k < n; k++) {
+                        System.out.print(path[k] + (k + 1 < n ? "->" : ""));
+                    }
+                    System.out.println();
+                }
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
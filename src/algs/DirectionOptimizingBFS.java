@@ -0,0 +1,364 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-source breadth-first search that switches direction per level
+ * (Beamer, Asanovic and Patterson), for a {@link Graph} or a {@link Digraph}.
+ * <p>
+ * The graph is copied once into flat out-edge arrays and, for a digraph, into
+ * flat in-edge arrays of its transpose. Each level is one parallel step over
+ * the bitset of the current frontier. A top-down step scans the out-edges of
+ * every frontier vertex and claims unvisited targets with a compare-and-set on
+ * the visited bitset. A bottom-up step instead lets every unvisited vertex
+ * look through its in-edges for a parent in the frontier and stop at the
+ * first one; each task owns whole words of the bitsets, so it needs no
+ * atomics. The search goes bottom-up once the edges out of the frontier
+ * outnumber a fraction of the edges of the unvisited vertices, and back
+ * top-down once the frontier shrinks to a small fraction of the vertices.
+ * <p>
+ * distTo is the same as for a sequential BFS. When a vertex has several
+ * parents one level closer, which of them edgeTo records depends on thread
+ * timing.
+ */
+public class DirectionOptimizingBFS {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int GRAIN = 64; // words, so 4096 vertices per task
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+
+    private final int V;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    private final ForkJoinPool pool;
+
+    private final int[] distTo;
+    private final int[] edgeTo;
+    private final AtomicLongArray visited;
+    private AtomicLongArray frontier;
+    private AtomicLongArray next;
+    private final AtomicLong nextCount = new AtomicLong();
+    private final AtomicLong nextEdges = new AtomicLong();
+    private int levels;
+    private int bottomUpSteps;
+
+    public DirectionOptimizingBFS(Graph G, int s) {
+        this(G, single(s));
+    }
+
+    public DirectionOptimizingBFS(Graph G, Iterable<Integer> sources) {
+        this(G, sources, ForkJoinPool.commonPool());
+    }
+
+    public DirectionOptimizingBFS(Graph G, Iterable<Integer> sources, ForkJoinPool pool) {
+        this.V = G.V();
+        this.pool = pool;
+        outOffsets = new int[V + 1];
+        for (int v = 0; v < V; v++) outOffsets[v + 1] = outOffsets[v] + G.degree(v);
+        outTargets = new int[outOffsets[V]];
+        for (int v = 0, i = 0; v < V; v++) {
+            for (int w : G.adj(v)) outTargets[i++] = w;
+        }
+        // undirected: the in-edges are the out-edges
+        inOffsets = outOffsets;
+        inTargets = outTargets;
+        distTo = new int[V];
+        edgeTo = new int[V];
+        visited = new AtomicLongArray(words());
+        bfs(sources);
+    }
+
+    public DirectionOptimizingBFS(Digraph G, int s) {
+        this(G, single(s));
+    }
+
+    public DirectionOptimizingBFS(Digraph G, Iterable<Integer> sources) {
+        this(G, sources, ForkJoinPool.commonPool());
+    }
+
+    public DirectionOptimizingBFS(Digraph G, Iterable<Integer> sources, ForkJoinPool pool) {
+        this.V = G.V();
+        this.pool = pool;
+        outOffsets = new int[V + 1];
+        inOffsets = new int[V + 1];
+        for (int v = 0; v < V; v++) {
+            outOffsets[v + 1] = outOffsets[v] + G.outdegree(v);
+            inOffsets[v + 1] = inOffsets[v] + G.indegree(v);
+        }
+        outTargets = new int[outOffsets[V]];
+        inTargets = new int[inOffsets[V]];
+        // the transpose is filled alongside, so G.reverse() is never built as lists
+        int[] position = new int[V];
+        System.arraycopy(inOffsets, 0, position, 0, V);
+        for (int v = 0, i = 0; v < V; v++) {
+            for (int w : G.adj(v)) {
+                outTargets[i++] = w;
+                inTargets[position[w]++] = v;
+            }
+        }
+        distTo = new int[V];
+        edgeTo = new int[V];
+        visited = new AtomicLongArray(words());
+        bfs(sources);
+    }
+
+    private static Iterable<Integer> single(int s) {
+        Queue<Integer> sources = new Queue<>();
+        sources.enqueue(s);
+        return sources;
+    }
+
+    private int words() {
+        return (V + 63) >>> 6;
+    }
+
+    private void bfs(Iterable<Integer> sources) {
+        if (sources == null) throw new IllegalArgumentException("argument is null");
+        for (int v = 0; v < V; v++) {
+            distTo[v] = INFINITY;
+            edgeTo[v] = -1;
+        }
+        frontier = new AtomicLongArray(words());
+        next = new AtomicLongArray(words());
+        long frontierCount = 0;
+        long frontierEdges = 0;
+        for (Integer s : sources) {
+            if (s == null) throw new IllegalArgumentException("vertex is null");
+            validateVertex(s);
+            if (distTo[s] == 0) continue;
+            distTo[s] = 0;
+            mark(visited, s);
+            mark(frontier, s);
+            frontierCount++;
+            frontierEdges += outOffsets[s + 1] - outOffsets[s];
+        }
+        if (frontierCount == 0) throw new IllegalArgumentException("zero vertices");
+
+        long unexploredEdges = outTargets.length - frontierEdges;
+        boolean bottomUp = false;
+        int level = 0;
+        while (frontierCount > 0) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) bottomUp = true;
+            else if (bottomUp && frontierCount < V / BETA) bottomUp = false;
+            if (bottomUp) bottomUpSteps++;
+            nextCount.set(0);
+            nextEdges.set(0);
+            pool.invoke(new Step(0, words(), level, bottomUp));
+            frontierCount = nextCount.get();
+            frontierEdges = nextEdges.get();
+            unexploredEdges -= frontierEdges;
+            AtomicLongArray t = frontier;
+            frontier = next;
+            next = t;
+            for (int i = 0; i < next.length(); i++) next.set(i, 0L);
+            level++;
+        }
+        levels = level;
+    }
+
+    private static void mark(AtomicLongArray bits, int v) {
+        bits.set(v >>> 6, bits.get(v >>> 6) | 1L << v);
+    }
+
+    private static boolean contains(AtomicLongArray bits, int v) {
+        return (bits.get(v >>> 6) & 1L << v) != 0;
+    }
+
+    // one level over the words [lo, hi) of the bitsets
+    private class Step extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int level;
+        private final boolean bottomUp;
+
+        Step(int lo, int hi, int level, boolean bottomUp) {
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+            this.bottomUp = bottomUp;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Step(lo, mid, level, bottomUp), new Step(mid, hi, level, bottomUp));
+                return;
+            }
+            if (bottomUp) bottomUp();
+            else topDown();
+        }
+
+        private void topDown() {
+            long count = 0;
+            long edges = 0;
+            for (int i = lo; i < hi; i++) {
+                for (long word = frontier.get(i); word != 0; word &= word - 1) {
+                    int v = (i << 6) + Long.numberOfTrailingZeros(word);
+                    for (int k = outOffsets[v]; k < outOffsets[v + 1]; k++) {
+                        int w = outTargets[k];
+                        if (claim(w)) {
+                            distTo[w] = level + 1;
+                            edgeTo[w] = v;
+                            orBit(next, w);
+                            count++;
+                            edges += outOffsets[w + 1] - outOffsets[w];
+                        }
+                    }
+                }
+            }
+            add(count, edges);
+        }
+
+        private void bottomUp() {
+            long count = 0;
+            long edges = 0;
+            for (int i = lo; i < hi; i++) {
+                long seen = visited.get(i);
+                long found = 0;
+                int end = Math.min((i + 1) << 6, V);
+                for (int w = i << 6; w < end; w++) {
+                    if ((seen & 1L << w) != 0) continue;
+                    for (int k = inOffsets[w]; k < inOffsets[w + 1]; k++) {
+                        int v = inTargets[k];
+                        if (contains(frontier, v)) {
+                            distTo[w] = level + 1;
+                            edgeTo[w] = v;
+                            found |= 1L << w;
+                            count++;
+                            edges += outOffsets[w + 1] - outOffsets[w];
+                            break;
+                        }
+                    }
+                }
+                if (found != 0) {
+                    visited.set(i, seen | found);
+                    next.set(i, found);
+                }
+            }
+            add(count, edges);
+        }
+
+        private void add(long count, long edges) {
+            if (count > 0) {
+                nextCount.addAndGet(count);
+                nextEdges.addAndGet(edges);
+            }
+        }
+    }
+
+    // sets the visited bit of w and returns true if this thread set it
+    private boolean claim(int w) {
+        int i = w >>> 6;
+        long bit = 1L << w;
+        while (true) {
+            long word = visited.get(i);
+            if ((word & bit) != 0) return false;
+            if (visited.compareAndSet(i, word, word | bit)) return true;
+        }
+    }
+
+    private static void orBit(AtomicLongArray bits, int w) {
+        int i = w >>> 6;
+        long bit = 1L << w;
+        while (true) {
+            long word = bits.get(i);
+            if (bits.compareAndSet(i, word, word | bit)) return;
+        }
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] != INFINITY;
+    }
+
+    /**
+     * Number of edges on a shortest path from the nearest source to v, or
+     * Integer.MAX_VALUE if v is unreachable.
+     */
+    public int distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    /**
+     * The vertex before v on a shortest path from a source, or -1 if v is a
+     * source or unreachable.
+     */
+    public int edgeTo(int v) {
+        validateVertex(v);
+        return edgeTo[v];
+    }
+
+    public Iterable<Integer> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<Integer> path = new Stack<>();
+        for (int x = v; x != -1; x = edgeTo[x]) {
+            path.push(x);
+        }
+        return path;
+    }
+
+    /**
+     * Number of levels expanded, including the last one, which found nothing.
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * Number of levels expanded bottom-up.
+     */
+    public int bottomUpSteps() {
+        return bottomUpSteps;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 && args.length != 3) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int s = Integer.parseInt(args[1]);
+        boolean directed = args.length == 3 && args[2].equals("directed");
+        try (Scanner in = new Scanner(file)) {
+            DirectionOptimizingBFS bfs;
+            int V;
+            if (directed) {
+                Digraph G = new Digraph(in);
+                V = G.V();
+                bfs = new DirectionOptimizingBFS(G, s);
+            } else {
+                Graph G = new Graph(in);
+                V = G.V();
+                bfs = new DirectionOptimizingBFS(G, s);
+            }
+            for (int v = 0; v < V; v++) {
+                if (bfs.hasPathTo(v)) {
+                    System.out.printf("%d to %d (%d):  ", s, v, bfs.distTo(v));
+                    for (int x : bfs.pathTo(v)) {
+                        if (x == s) System.out.print(x);
+                        else System.out.print("-" + x);
+                    }
+                    System.out.println();
+                } else {
+                    System.out.printf("%d to %d (-):  not connected\n", s, v);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Many-to-many shortest-path distances.
+ * <p>
+ * One Dijkstra search runs per source, in parallel on a fork-join pool over
+ * the shared read-only graph. Each worker thread keeps its own
+ * {@link DijkstraWorkspace}, so the search arrays are allocated once per thread
+ * instead of once per source. A search stops as soon as every target is
+ * settled.
+ */
+public class DistanceMatrix {
+    private final CompactEdgeWeightedDigraph G;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<DijkstraWorkspace> workspaces;
+
+    public DistanceMatrix(EdgeWeightedDigraph G) {
+        this(new CompactEdgeWeightedDigraph(G));
+    }
+
+    public DistanceMatrix(CompactEdgeWeightedDigraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public DistanceMatrix(CompactEdgeWeightedDigraph G, ForkJoinPool pool) {
+        double[] weights = G.weights();
+        for (int i = 0; i < G.E(); i++) {
+            if (weights[i] < 0)
+                throw new IllegalArgumentException("edge " + G.edge(i) + " has negative weight");
+        }
+        this.G = G;
+        this.pool = pool;
+        this.workspaces = ThreadLocal.withInitial(() -> new DijkstraWorkspace(G));
+    }
+
+    /**
+     * Returns the distances from every source to every target, row-major:
+     * entry [i * targets.length + j] is the distance from sources[i] to
+     * targets[j], or infinity if there is no path.
+     */
+    public double[] distances(int[] sources, int[] targets) {
+        if ((long) sources.length * targets.length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("matrix has more than " + Integer.MAX_VALUE + " entries");
+        double[] matrix = new double[sources.length * targets.length];
+        distances(sources, targets, matrix);
+        return matrix;
+    }
+
+    /**
+     * Writes the distances into the caller's matrix, laid out as above.
+     */
+    public void distances(int[] sources, int[] targets, double[] matrix) {
+        for (int v : sources) validateVertex(v);
+        for (int v : targets) validateVertex(v);
+        if ((long) sources.length * targets.length > matrix.length)
+            throw new IllegalArgumentException("matrix holds fewer than " + sources.length + " x " + targets.length + " entries");
+        pool.invoke(new Rows(sources, targets, matrix, 0, sources.length));
+    }
+
+    public int V() {
+        return G.V();
+    }
+
+    private class Rows extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sources;
+        private final int[] targets;
+        private final double[] matrix;
+        private final int lo;
+        private final int hi;
+
+        Rows(int[] sources, int[] targets, double[] matrix, int lo, int hi) {
+            this.sources = sources;
+            this.targets = targets;
+            this.matrix = matrix;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Rows(sources, targets, matrix, lo, mid),
+                        new Rows(sources, targets, matrix, mid, hi));
+                return;
+            }
+            DijkstraWorkspace ws = workspaces.get();
+            for (int i = lo; i < hi; i++) {
+                ws.search(sources[i], targets);
+                int row = i * targets.length;
+                for (int j = 0; j < targets.length; j++) matrix[row + j] = ws.distTo(targets[j]);
+            }
+        }
+    }
+
+    private void validateVertex(int v) {
+        int V = G.V();
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            int[] vertices = new int[G.V()];
+            for (int v = 0; v < G.V(); v++) vertices[v] = v;
+            double[] matrix = new DistanceMatrix(G).distances(vertices, vertices);
+
+            System.out.print("     ");
+            for (int w = 0; w < G.V(); w++) System.out.printf("%6d ", w);
+            System.out.println();
+            for (int v = 0; v < G.V(); v++) {
+                System.out.printf("%3d: ", v);
+                for (int w = 0; w < G.V(); w++) {
+                    double d = matrix[v * G.V() + w];
+                    if (d < Double.POSITIVE_INFINITY) System.out.printf("%6.2f ", d);
+                    else System.out.printf("%6s ", "Inf");
+                }
+                System.out.println();
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
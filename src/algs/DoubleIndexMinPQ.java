@@ -0,0 +1,165 @@
+package algs;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Min Indexed Priority Queue with primitive double keys using a d-ary heap.
+ * Keys are stored in heap order next to the indices, so comparisons never leave
+ * the heap arrays and nothing is boxed.
+ */
+public class DoubleIndexMinPQ {
+    private final int maxN;
+    private final int d;
+    private final int[] pq;
+    private final double[] keys;
+    private final int[] qp;
+    private int n;
+
+    public DoubleIndexMinPQ(int maxN) {
+        this(maxN, 4);
+    }
+
+    public DoubleIndexMinPQ(int maxN, int d) {
+        if (maxN < 0) throw new IllegalArgumentException();
+        if (d < 2) throw new IllegalArgumentException("Arity must be at least 2");
+        this.maxN = maxN;
+        this.d = d;
+        n = 0;
+        pq = new int[maxN];
+        keys = new double[maxN];
+        qp = new int[maxN];
+        for (int i = 0; i < maxN; i++) qp[i] = -1;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int arity() {
+        return d;
+    }
+
+    public boolean contains(int i) {
+        validateIndex(i);
+        return qp[i] != -1;
+    }
+
+    public void insert(int i, double k) {
+        validateIndex(i);
+        if (Double.isNaN(k)) throw new IllegalArgumentException("key cannot be NaN");
+        if (contains(i)) throw new IllegalArgumentException("index already exists");
+        swim(n++, i, k);
+    }
+
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException();
+        return pq[0];
+    }
+
+    public double minKey() {
+        if (n == 0) throw new NoSuchElementException();
+        return keys[0];
+    }
+
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException();
+        int min = pq[0];
+        qp[min] = -1;
+        n--;
+        if (n > 0) sink(0, pq[n], keys[n]);
+        return min;
+    }
+
+    public double keyOf(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException();
+        return keys[qp[i]];
+    }
+
+    public void changeKey(int i, double k) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException();
+        if (Double.isNaN(k)) throw new IllegalArgumentException("key cannot be NaN");
+        if (k < keys[qp[i]]) swim(qp[i], i, k);
+        else sink(qp[i], i, k);
+    }
+
+    public void decreaseKey(int i, double k) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException();
+        if (!(k < keys[qp[i]])) throw new IllegalArgumentException();
+        swim(qp[i], i, k);
+    }
+
+    public void increaseKey(int i, double k) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException();
+        if (!(k > keys[qp[i]])) throw new IllegalArgumentException();
+        sink(qp[i], i, k);
+    }
+
+    public void delete(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException();
+        int index = qp[i];
+        qp[i] = -1;
+        n--;
+        if (index == n) return;
+        int last = pq[n];
+        double key = keys[n];
+        if (index > 0 && key < keys[(index - 1) / d]) swim(index, last, key);
+        else sink(index, last, key);
+    }
+
+    /**
+     * Removes every index in time proportional to the current size.
+     */
+    public void clear() {
+        for (int k = 0; k < n; k++) qp[pq[k]] = -1;
+        n = 0;
+    }
+
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException();
+        if (i >= maxN) throw new IllegalArgumentException();
+    }
+
+    private void place(int k, int i, double key) {
+        pq[k] = i;
+        keys[k] = key;
+        qp[i] = k;
+    }
+
+    // moves the hole at k up until (i, key) fits
+    private void swim(int k, int i, double key) {
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            if (keys[parent] <= key) break;
+            place(k, pq[parent], keys[parent]);
+            k = parent;
+        }
+        place(k, i, key);
+    }
+
+    // moves the hole at k down until (i, key) fits
+    private void sink(int k, int i, double key) {
+        while (true) {
+            long child = (long) d * k + 1;
+            if (child >= n) break;
+            int first = (int) child;
+            int last = (int) Math.min(child + d, n);
+            int min = first;
+            for (int j = first + 1; j < last; j++) {
+                if (keys[j] < keys[min]) min = j;
+            }
+            if (keys[min] >= key) break;
+            place(k, pq[min], keys[min]);
+            k = min;
+        }
+        place(k, i, key);
+    }
+}
@@ -0,0 +1,183 @@
+package algs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min priority queue of (double key, int value) pairs using a d-ary heap.
+ * Pairs are ordered by key and then by value, so equal keys come out in a
+ * fixed order. Like {@link LongMinPQ} it supports a linear-time bulk load and
+ * a destructive sorted drain inside its own arrays.
+ */
+public class DoubleIntMinPQ {
+    private final int d;
+    private double[] keys;
+    private int[] values;
+    private int n;
+    private int sorted; // number of pairs left in sorted order by drainSorted
+
+    public DoubleIntMinPQ() {
+        this(16, 4);
+    }
+
+    public DoubleIntMinPQ(int capacity) {
+        this(capacity, 4);
+    }
+
+    public DoubleIntMinPQ(int capacity, int d) {
+        if (capacity < 0) throw new IllegalArgumentException();
+        if (d < 2) throw new IllegalArgumentException("Arity must be at least 2");
+        this.d = d;
+        keys = new double[Math.max(capacity, 1)];
+        values = new int[keys.length];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int arity() {
+        return d;
+    }
+
+    public void insert(double key, int value) {
+        if (Double.isNaN(key)) throw new IllegalArgumentException("key cannot be NaN");
+        sorted = 0;
+        if (n == keys.length) grow(2 * n);
+        swim(n++, key, value);
+    }
+
+    /**
+     * Inserts the pairs (keys[i], values[i]) for i in [from, to). When the
+     * batch is at least as large as the queue the whole heap is rebuilt
+     * bottom-up in linear time.
+     */
+    public void insertAll(double[] keys, int[] values, int from, int to) {
+        if (from < 0 || to > keys.length || to > values.length || from > to) throw new IllegalArgumentException();
+        for (int i = from; i < to; i++) {
+            if (Double.isNaN(keys[i])) throw new IllegalArgumentException("key cannot be NaN");
+        }
+        sorted = 0;
+        int count = to - from;
+        if (n + count > this.keys.length) grow(Math.max(n + count, 2 * this.keys.length));
+        if (count < n) {
+            for (int i = from; i < to; i++) swim(n++, keys[i], values[i]);
+            return;
+        }
+        System.arraycopy(keys, from, this.keys, n, count);
+        System.arraycopy(values, from, this.values, n, count);
+        n += count;
+        for (int k = (n - 2) / d; k >= 0; k--) sink(k, this.keys[k], this.values[k]);
+    }
+
+    public double minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return keys[0];
+    }
+
+    public int minValue() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return values[0];
+    }
+
+    /**
+     * Removes the smallest pair and returns its value.
+     */
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = values[0];
+        n--;
+        if (n > 0) sink(0, keys[n], values[n]);
+        return min;
+    }
+
+    /**
+     * Empties the queue by heapsort inside its own arrays and returns the
+     * number of pairs, which are then available in ascending order through
+     * {@link #sortedKey(int)} and {@link #sortedValue(int)} until the next
+     * insertion.
+     */
+    public int drainSorted() {
+        int count = n;
+        while (n > 1) {
+            double key = keys[n - 1];
+            int value = values[n - 1];
+            keys[n - 1] = keys[0];
+            values[n - 1] = values[0];
+            n--;
+            sink(0, key, value);
+        }
+        n = 0;
+        // the min-heap sort leaves the pairs descending
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            double key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        sorted = count;
+        return count;
+    }
+
+    public double sortedKey(int i) {
+        validateSorted(i);
+        return keys[i];
+    }
+
+    public int sortedValue(int i) {
+        validateSorted(i);
+        return values[i];
+    }
+
+    private void validateSorted(int i) {
+        if (i < 0 || i >= sorted) throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (sorted - 1));
+    }
+
+    private void grow(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    private static boolean less(double key, int value, double otherKey, int otherValue) {
+        return key < otherKey || key == otherKey && value < otherValue;
+    }
+
+    // moves the hole at k up until (key, value) fits
+    private void swim(int k, double key, int value) {
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            if (!less(key, value, keys[parent], values[parent])) break;
+            keys[k] = keys[parent];
+            values[k] = values[parent];
+            k = parent;
+        }
+        keys[k] = key;
+        values[k] = value;
+    }
+
+    // moves the hole at k down until (key, value) fits
+    private void sink(int k, double key, int value) {
+        while (true) {
+            long child = (long) d * k + 1;
+            if (child >= n) break;
+            int first = (int) child;
+            int last = (int) Math.min(child + d, n);
+            int min = first;
+            for (int j = first + 1; j < last; j++) {
+                if (less(keys[j], values[j], keys[min], values[min])) min = j;
+            }
+            if (!less(keys[min], values[min], key, value)) break;
+            keys[k] = keys[min];
+            values[k] = values[min];
+            k = min;
+        }
+        keys[k] = key;
+        values[k] = value;
+    }
+}
@@ -0,0 +1,321 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Single-source shortest paths kept up to date under edge insertions,
+ * removals and weight changes, in the style of Ramalingam and Reps.
+ * <p>
+ * Edges are addressed by id: the edges of the initial graph get ids 0 to E-1
+ * in the order of {@link EdgeWeightedDigraph#edges()}, and every added edge
+ * gets the next id. Weights must be non-negative.
+ * <p>
+ * An update that can only shorten paths (an insertion or a decrease) seeds a
+ * Dijkstra search at the head of the edge, which spreads only as far as
+ * distances improve. One that can only lengthen paths (a removal or an
+ * increase) matters only if the edge is in the shortest-path tree: the subtree
+ * below it is cut off, each of its vertices is given the best distance through
+ * an in-edge from outside the subtree, and a Dijkstra search limited to the
+ * subtree settles the rest. Either way the work is proportional to the
+ * vertices whose distance changes and their edges.
+ */
+public class DynamicSP {
+    private final int V;
+    private final int s;
+    private int E;
+    private int[] from;
+    private int[] to;
+    private double[] weight;
+    private boolean[] removed;
+    private final int[][] out;
+    private final int[] outSize;
+    private final int[][] in;
+    private final int[] inSize;
+
+    private final double[] distTo;
+    private final int[] edgeTo;
+    private final DoubleIndexMinPQ pq;
+    private final int[] mark;
+    private int epoch;
+    private int[] subtree;
+    private int affected;
+
+    public DynamicSP(EdgeWeightedDigraph G, int s) {
+        V = G.V();
+        this.s = s;
+        validateVertex(s);
+        int capacity = Math.max(G.E(), 1);
+        from = new int[capacity];
+        to = new int[capacity];
+        weight = new double[capacity];
+        removed = new boolean[capacity];
+        out = new int[V][];
+        in = new int[V][];
+        outSize = new int[V];
+        inSize = new int[V];
+        for (int v = 0; v < V; v++) {
+            out[v] = new int[Math.max(G.outdegree(v), 1)];
+            in[v] = new int[Math.max(G.indegree(v), 1)];
+        }
+        for (DirectedEdge e : G.edges()) {
+            if (e.weight() < 0)
+                throw new IllegalArgumentException("edge " + e + " has negative weight");
+            link(e.from(), e.to(), e.weight());
+        }
+
+        distTo = new double[V];
+        edgeTo = new int[V];
+        pq = new DoubleIndexMinPQ(V);
+        mark = new int[V];
+        subtree = new int[16];
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        Arrays.fill(edgeTo, -1);
+        distTo[s] = 0.0;
+        pq.insert(s, 0.0);
+        dijkstra();
+        affected = V;
+    }
+
+    private int link(int v, int w, double weight) {
+        if (E == from.length) {
+            from = Arrays.copyOf(from, 2 * E);
+            to = Arrays.copyOf(to, 2 * E);
+            this.weight = Arrays.copyOf(this.weight, 2 * E);
+            removed = Arrays.copyOf(removed, 2 * E);
+        }
+        int id = E++;
+        from[id] = v;
+        to[id] = w;
+        this.weight[id] = weight;
+        if (outSize[v] == out[v].length) out[v] = Arrays.copyOf(out[v], 2 * outSize[v]);
+        out[v][outSize[v]++] = id;
+        if (inSize[w] == in[w].length) in[w] = Arrays.copyOf(in[w], 2 * inSize[w]);
+        in[w][inSize[w]++] = id;
+        return id;
+    }
+
+    private static void unlink(int[] list, int size, int id) {
+        for (int k = 0; k < size; k++) {
+            if (list[k] == id) {
+                list[k] = list[size - 1];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the edge v-&gt;w and returns its id.
+     */
+    public int addEdge(int v, int w, double weight) {
+        validateVertex(v);
+        validateVertex(w);
+        validateWeight(weight);
+        int id = link(v, w, weight);
+        affected = 0;
+        decreased(id);
+        return id;
+    }
+
+    public void removeEdge(int id) {
+        validateEdge(id);
+        removed[id] = true;
+        unlink(out[from[id]], outSize[from[id]]--, id);
+        unlink(in[to[id]], inSize[to[id]]--, id);
+        affected = 0;
+        increased(id);
+    }
+
+    public void setWeight(int id, double weight) {
+        validateEdge(id);
+        validateWeight(weight);
+        double old = this.weight[id];
+        this.weight[id] = weight;
+        affected = 0;
+        if (weight < old) decreased(id);
+        else if (weight > old) increased(id);
+    }
+
+    private void decreased(int id) {
+        int v = from[id];
+        int w = to[id];
+        double dist = distTo[v] + weight[id];
+        if (distTo[w] <= dist) return;
+        distTo[w] = dist;
+        edgeTo[w] = id;
+        pq.insert(w, dist);
+        dijkstra();
+    }
+
+    private void increased(int id) {
+        int w = to[id];
+        if (edgeTo[w] != id) return;
+
+        // collect the subtree hanging from the edge, following tree edges down
+        epoch++;
+        int n = 0;
+        subtree = grow(subtree, n);
+        subtree[n++] = w;
+        mark[w] = epoch;
+        for (int k = 0; k < n; k++) {
+            int x = subtree[k];
+            for (int j = 0; j < outSize[x]; j++) {
+                int e = out[x][j];
+                int y = to[e];
+                if (edgeTo[y] == e && mark[y] != epoch) {
+                    mark[y] = epoch;
+                    subtree = grow(subtree, n);
+                    subtree[n++] = y;
+                }
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            distTo[subtree[k]] = Double.POSITIVE_INFINITY;
+            edgeTo[subtree[k]] = -1;
+        }
+
+        // best entry into each cut vertex from the part of the tree that is still exact
+        for (int k = 0; k < n; k++) {
+            int x = subtree[k];
+            for (int j = 0; j < inSize[x]; j++) {
+                int e = in[x][j];
+                if (mark[from[e]] == epoch) continue;
+                double dist = distTo[from[e]] + weight[e];
+                if (dist < distTo[x]) {
+                    distTo[x] = dist;
+                    edgeTo[x] = e;
+                }
+            }
+            if (distTo[x] < Double.POSITIVE_INFINITY) pq.insert(x, distTo[x]);
+        }
+        dijkstra();
+    }
+
+    private static int[] grow(int[] a, int n) {
+        return n < a.length ? a : Arrays.copyOf(a, 2 * n);
+    }
+
+    private void dijkstra() {
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            affected++;
+            for (int j = 0; j < outSize[v]; j++) {
+                int e = out[v][j];
+                int w = to[e];
+                double dist = distTo[v] + weight[e];
+                if (distTo[w] > dist) {
+                    distTo[w] = dist;
+                    edgeTo[w] = e;
+                    if (pq.contains(w)) pq.decreaseKey(w, dist);
+                    else pq.insert(w, dist);
+                }
+            }
+        }
+    }
+
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Number of edges currently in the graph.
+     */
+    public int E() {
+        int count = 0;
+        for (int v = 0; v < V; v++) count += outSize[v];
+        return count;
+    }
+
+    public int source() {
+        return s;
+    }
+
+    public DirectedEdge edge(int id) {
+        validateEdge(id);
+        return new DirectedEdge(from[id], to[id], weight[id]);
+    }
+
+    /**
+     * Number of vertices the last update settled again.
+     */
+    public int affected() {
+        return affected;
+    }
+
+    public double distTo(int v) {
+        validateVertex(v);
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<>();
+        for (int e = edgeTo[v]; e != -1; e = edgeTo[from[e]]) {
+            path.push(new DirectedEdge(from[e], to[e], weight[e]));
+        }
+        return path;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    private void validateEdge(int id) {
+        if (id < 0 || id >= E) throw new IllegalArgumentException("edge " + id + " is not between 0 and " + (E - 1));
+        if (removed[id]) throw new IllegalArgumentException("edge " + id + " has been removed");
+    }
+
+    private static void validateWeight(double weight) {
+        if (!(weight >= 0)) throw new IllegalArgumentException("weight " + weight + " is negative");
+    }
+
+    /**
+     * Applies random weight changes to the graph, checks the distances against
+     * a fresh DijkstraSP and compares the cost with recomputing each time.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int s = Integer.parseInt(args[1]);
+        int updates = Integer.parseInt(args[2]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            DynamicSP sp = new DynamicSP(G, s);
+            Random random = new Random(1);
+            long affected = 0;
+            long start = System.nanoTime();
+            for (int k = 0; k < updates && G.E() > 0; k++) {
+                int id = random.nextInt(G.E());
+                sp.setWeight(id, sp.edge(id).weight() * (0.5 + random.nextDouble()));
+                affected += sp.affected();
+            }
+            double elapsed = (System.nanoTime() - start) / 1e6;
+
+            EdgeWeightedDigraph H = new EdgeWeightedDigraph(G.V());
+            for (int id = 0; id < G.E(); id++) H.addEdge(sp.edge(id));
+            start = System.nanoTime();
+            DijkstraSP fresh = new DijkstraSP(H, s);
+            double rebuild = (System.nanoTime() - start) / 1e6;
+            for (int v = 0; v < G.V(); v++) {
+                if (fresh.distTo(v) != sp.distTo(v))
+                    throw new IllegalStateException("distance to " + v + " is " + sp.distTo(v) + ", expected " + fresh.distTo(v));
+            }
+            System.out.printf("%d updates in %.1f ms, %.1f vertices settled per update; one DijkstraSP takes %.1f ms%n",
+                    updates, elapsed, (double) affected / Math.max(updates, 1), rebuild);
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
@@ -4,42 +4,14 @@ package algs;
  * Class determines if an edge-weighted graph has a cycle
  */
 public class EWDCycle {
-    private boolean[] marked;
-    private DirectedEdge[] edgeTo;
-    private boolean[] onStack;
-    private Stack<DirectedEdge> cycle;
+    private final Iterable<DirectedEdge> cycle;
 
+    /**
+     * Runs on {@link IterativeDFS}, so long paths cannot overflow the stack;
+     * the cycle found is the one the recursive search finds.
+     */
     public EWDCycle(EdgeWeightedDigraph G) {
-        marked = new boolean[G.V()];
-        onStack = new boolean[G.V()];
-        edgeTo = new DirectedEdge[G.V()];
-        for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) dfs(G, v);
-    }
-
-    private void dfs(EdgeWeightedDigraph G, int v) {
-        onStack[v] = true;
-        marked[v] = true;
-        for (DirectedEdge e : G.adj(v)) {
-            int w = e.to();
-
-            if (cycle != null) return;
-            else if (!marked[w]) {
-                edgeTo[w] = e;
-                dfs(G, w);
-            } else if (onStack[w]) {
-                cycle = new Stack<>();
-                DirectedEdge f = e;
-                while (f.from() != w) {
-                    cycle.push(f);
-                    f = edgeTo[f.from()];
-                }
-                cycle.push(f);
-
-                return;
-            }
-        }
-        onStack[v] = false;
+        cycle = new IterativeDFS(G).edgeCycle();
     }
 
     public boolean hasCycle() {
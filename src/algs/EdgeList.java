@@ -0,0 +1,131 @@
+package algs;
+
+/**
+ * Edges held as parallel primitive arrays, used to build any of the graph
+ * classes in one pass. Edges are added in array order, so the adjacency lists
+ * come out exactly as if the edges had been added one by one.
+ */
+public class EdgeList {
+    private final int V;
+    private final int E;
+    private final int[] from;
+    private final int[] to;
+    private final double[] weight;
+    private final RuntimeException failure;
+
+    public EdgeList(int V, int[] from, int[] to, double[] weight) {
+        this(V, from.length, from, to, weight, null);
+    }
+
+    // a parser that hit a malformed token keeps the edges before it so that the
+    // builders report earlier errors first, in the order the Scanner constructors would
+    EdgeList(int V, int E, int[] from, int[] to, double[] weight, RuntimeException failure) {
+        if (to.length < E || from.length < E || (weight != null && weight.length < E))
+            throw new IllegalArgumentException("Edge arrays are shorter than the number of edges");
+        this.V = V;
+        this.E = E;
+        this.from = from;
+        this.to = to;
+        this.weight = weight;
+        this.failure = failure;
+    }
+
+    public int V() {
+        return V;
+    }
+
+    public int E() {
+        return E;
+    }
+
+    public boolean isWeighted() {
+        return weight != null;
+    }
+
+    public int from(int i) {
+        return from[i];
+    }
+
+    public int to(int i) {
+        return to[i];
+    }
+
+    public double weight(int i) {
+        if (weight == null) throw new UnsupportedOperationException("Edge list is not weighted");
+        return weight[i];
+    }
+
+    private void requireWeights() {
+        if (weight == null) throw new UnsupportedOperationException("Edge list is not weighted");
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    void checkFailure() {
+        if (failure != null) throw failure;
+    }
+
+    public Graph toGraph() {
+        Graph G = new Graph(V);
+        for (int i = 0; i < E; i++) G.addEdge(from[i], to[i]);
+        checkFailure();
+        return G;
+    }
+
+    public Digraph toDigraph() {
+        Digraph G = new Digraph(V);
+        for (int i = 0; i < E; i++) G.addEdge(from[i], to[i]);
+        checkFailure();
+        return G;
+    }
+
+    public EdgeWeightedGraph toEdgeWeightedGraph() {
+        requireWeights();
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 0; i < E; i++) G.addEdge(new Edge(from[i], to[i], weight[i]));
+        checkFailure();
+        return G;
+    }
+
+    public EdgeWeightedDigraph toEdgeWeightedDigraph() {
+        requireWeights();
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(V);
+        for (int i = 0; i < E; i++) {
+            validateVertex(from[i]);
+            validateVertex(to[i]);
+            G.addEdge(new DirectedEdge(from[i], to[i], weight[i]));
+        }
+        checkFailure();
+        return G;
+    }
+
+    /**
+     * Builds the CSR form directly with a counting sort on the source vertex,
+     * without creating any edge objects.
+     */
+    public CompactEdgeWeightedDigraph toCompactEdgeWeightedDigraph() {
+        requireWeights();
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        int[] offsets = new int[V + 1];
+        for (int i = 0; i < E; i++) {
+            validateVertex(from[i]);
+            validateVertex(to[i]);
+            if (Double.isNaN(weight[i])) throw new IllegalArgumentException("Weight cannot be NaN");
+            offsets[from[i] + 1]++;
+        }
+        checkFailure();
+        for (int v = 0; v < V; v++) offsets[v + 1] += offsets[v];
+        int[] next = new int[V];
+        System.arraycopy(offsets, 0, next, 0, V);
+        int[] targets = new int[E];
+        double[] weights = new double[E];
+        for (int i = 0; i < E; i++) {
+            int j = next[from[i]]++;
+            targets[j] = to[i];
+            weights[j] = weight[i];
+        }
+        return new CompactEdgeWeightedDigraph(V, offsets, targets, weights);
+    }
+}
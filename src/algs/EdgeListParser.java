@@ -0,0 +1,328 @@
+package algs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel parser for the "V E v w [weight]" text format read by the Scanner
+ * constructors.
+ * <p>
+ * The file is memory-mapped and split into chunks that end on whitespace. A
+ * first parallel pass counts the tokens of every chunk, which tells each chunk
+ * the global index of its first token and therefore which edge and field each
+ * of its tokens belongs to. A second parallel pass parses the numbers by hand
+ * straight into the {@link EdgeList} arrays. Like Scanner, tokens may be
+ * separated by any whitespace and tokens past the last edge are ignored.
+ */
+public class EdgeListParser {
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final int MAX_CHUNK = 1 << 30;
+    private static final int WINDOW = 1 << 12;
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1.0;
+        for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+    }
+
+    private EdgeListParser() {
+    }
+
+    public static EdgeList parse(Path file, boolean weighted) throws IOException {
+        EdgeList edges = parse(file, weighted ? 3 : 2, "non-negative");
+        edges.checkFailure();
+        return edges;
+    }
+
+    // the read methods throw what the Scanner constructors of each class throw for the same input
+
+    public static Graph readGraph(Path file) throws IOException {
+        try {
+            return parse(file, 2, "non-negative").toGraph();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public static Digraph readDigraph(Path file) throws IOException {
+        try {
+            return parse(file, 2, "nonnegative").toDigraph();
+        } catch (InputMismatchException e) {
+            throw new IllegalArgumentException("Invalid input", e);
+        }
+    }
+
+    public static EdgeWeightedGraph readEdgeWeightedGraph(Path file) throws IOException {
+        try {
+            return parse(file, 3, "non-negative").toEdgeWeightedGraph();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public static EdgeWeightedDigraph readEdgeWeightedDigraph(Path file) throws IOException {
+        try {
+            return parse(file, 3, "non-negative").toEdgeWeightedDigraph();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static EdgeList parse(Path file, int arity, String nonNegative) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            long[] token = new long[2];
+
+            nextToken(ch, 0, size, token);
+            int V = parseInt(slice(ch, token), 0, (int) (token[1] - token[0]));
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be " + nonNegative);
+            nextToken(ch, token[1], size, token);
+            int E = parseInt(slice(ch, token), 0, (int) (token[1] - token[0]));
+            if (E < 0) throw new IllegalArgumentException("Number of edges must be " + nonNegative);
+
+            long start = token[1];
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            long n = Math.max(1, Math.min((size - start) / MIN_CHUNK, 4L * parallelism));
+            n = Math.max(n, (size - start) / MAX_CHUNK + 1);
+            long[] bounds = new long[(int) n + 1];
+            bounds[0] = start;
+            for (int i = 1; i < n; i++) {
+                long p = Math.max(bounds[i - 1], start + (size - start) / n * i);
+                bounds[i] = nextWhitespace(ch, p, size);
+            }
+            bounds[(int) n] = size;
+
+            int chunks = (int) n;
+            MappedByteBuffer[] buffers = new MappedByteBuffer[chunks];
+            for (int i = 0; i < chunks; i++) {
+                buffers[i] = ch.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+            }
+
+            long[] firstToken = new long[chunks + 1];
+            IntStream.range(0, chunks).parallel().forEach(i -> firstToken[i + 1] = countTokens(buffers[i]));
+            for (int i = 0; i < chunks; i++) firstToken[i + 1] += firstToken[i];
+
+            long needed = (long) E * arity;
+            int[] from = new int[E];
+            int[] to = new int[E];
+            double[] weight = arity == 3 ? new double[E] : null;
+            long[] errorAt = new long[chunks];
+            RuntimeException[] errors = new RuntimeException[chunks];
+            IntStream.range(0, chunks).parallel().forEach(i -> {
+                errorAt[i] = Long.MAX_VALUE;
+                if (firstToken[i] >= needed) return;
+                try {
+                    parseChunk(buffers[i], firstToken[i], needed, arity, from, to, weight);
+                } catch (ParseException e) {
+                    errorAt[i] = e.token;
+                    errors[i] = e.error;
+                }
+            });
+
+            long first = Long.MAX_VALUE;
+            RuntimeException failure = null;
+            for (int i = 0; i < chunks; i++) {
+                if (errorAt[i] < first) {
+                    first = errorAt[i];
+                    failure = errors[i];
+                }
+            }
+            if (failure == null && firstToken[chunks] < needed) {
+                first = firstToken[chunks];
+                failure = new NoSuchElementException();
+            }
+            if (failure == null) return new EdgeList(V, E, from, to, weight, null);
+            return new EdgeList(V, (int) (first / arity), from, to, weight, failure);
+        } catch (NoSuchFileException e) {
+            throw new NoSuchFileException("File " + file + " not found");
+        }
+    }
+
+    private static class ParseException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final long token;
+        final RuntimeException error;
+
+        ParseException(long token, RuntimeException error) {
+            super(null, null, false, false);
+            this.token = token;
+            this.error = error;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0b;
+    }
+
+    private static int countTokens(ByteBuffer buf) {
+        int count = 0;
+        boolean inToken = false;
+        for (int i = 0, n = buf.limit(); i < n; i++) {
+            boolean ws = isWhitespace(buf.get(i));
+            if (!ws && !inToken) count++;
+            inToken = !ws;
+        }
+        return count;
+    }
+
+    private static void parseChunk(ByteBuffer buf, long k, long needed, int arity, int[] from, int[] to,
+                                   double[] weight) throws ParseException {
+        int i = 0, n = buf.limit();
+        while (k < needed) {
+            while (i < n && isWhitespace(buf.get(i))) i++;
+            if (i == n) return;
+            int j = i;
+            while (j < n && !isWhitespace(buf.get(j))) j++;
+            int edge = (int) (k / arity);
+            int field = (int) (k % arity);
+            try {
+                if (field == 0) from[edge] = parseInt(buf, i, j);
+                else if (field == 1) to[edge] = parseInt(buf, i, j);
+                else weight[edge] = parseDouble(buf, i, j);
+            } catch (RuntimeException e) {
+                throw new ParseException(k, e);
+            }
+            k++;
+            i = j;
+        }
+    }
+
+    /**
+     * Finds the first token at or after position p and stores its bounds in token.
+     */
+    private static void nextToken(FileChannel ch, long p, long size, long[] token) throws IOException {
+        while (p < size) {
+            ByteBuffer window = ch.map(FileChannel.MapMode.READ_ONLY, p, Math.min(WINDOW, size - p));
+            int i = 0;
+            while (i < window.limit() && isWhitespace(window.get(i))) i++;
+            p += i;
+            if (i < window.limit()) break;
+        }
+        if (p >= size) throw new NoSuchElementException();
+        token[0] = p;
+        token[1] = nextWhitespace(ch, p, size);
+    }
+
+    private static long nextWhitespace(FileChannel ch, long p, long size) throws IOException {
+        while (p < size) {
+            ByteBuffer window = ch.map(FileChannel.MapMode.READ_ONLY, p, Math.min(WINDOW, size - p));
+            for (int i = 0; i < window.limit(); i++) {
+                if (isWhitespace(window.get(i))) return p + i;
+            }
+            p += window.limit();
+        }
+        return size;
+    }
+
+    private static ByteBuffer slice(FileChannel ch, long[] token) throws IOException {
+        if (token[1] - token[0] > WINDOW) throw new InputMismatchException();
+        return ch.map(FileChannel.MapMode.READ_ONLY, token[0], token[1] - token[0]);
+    }
+
+    static int parseInt(ByteBuffer buf, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) negative = buf.get(i++) == '-';
+        if (i == end) throw new InputMismatchException();
+        long x = 0;
+        for (; i < end; i++) {
+            int d = buf.get(i) - '0';
+            if (d < 0 || d > 9) throw new InputMismatchException();
+            x = x * 10 + d;
+            if (x > (long) Integer.MAX_VALUE + 1) throw new InputMismatchException();
+        }
+        if (negative) x = -x;
+        if (x > Integer.MAX_VALUE) throw new InputMismatchException();
+        return (int) x;
+    }
+
+    /**
+     * Parses plain decimals with at most 15 significant digits and a small exponent
+     * exactly with one multiplication or division; anything else goes through
+     * {@link Double#parseDouble}.
+     */
+    static double parseDouble(ByteBuffer buf, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) negative = buf.get(i++) == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean any = false;
+        for (; i < end && buf.get(i) >= '0' && buf.get(i) <= '9'; i++) {
+            any = true;
+            if (mantissa == 0 && buf.get(i) == '0') continue;
+            mantissa = mantissa * 10 + (buf.get(i) - '0');
+            digits++;
+            if (digits > 15) return slowParseDouble(buf, start, end);
+        }
+        if (i < end && buf.get(i) == '.') {
+            for (i++; i < end && buf.get(i) >= '0' && buf.get(i) <= '9'; i++) {
+                any = true;
+                scale--;
+                if (mantissa == 0 && buf.get(i) == '0') continue;
+                mantissa = mantissa * 10 + (buf.get(i) - '0');
+                digits++;
+                if (digits > 15) return slowParseDouble(buf, start, end);
+            }
+        }
+        if (!any) return slowParseDouble(buf, start, end);
+        if (i < end && (buf.get(i) == 'e' || buf.get(i) == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) negativeExp = buf.get(i++) == '-';
+            if (i == end) throw new InputMismatchException();
+            int exp = 0;
+            for (; i < end; i++) {
+                int d = buf.get(i) - '0';
+                if (d < 0 || d > 9) throw new InputMismatchException();
+                if (exp > 1000) return slowParseDouble(buf, start, end);
+                exp = exp * 10 + d;
+            }
+            scale += negativeExp ? -exp : exp;
+        }
+        if (i != end) throw new InputMismatchException();
+        double x = mantissa;
+        if (mantissa != 0) {
+            if (scale < -22 || scale > 22) return slowParseDouble(buf, start, end);
+            x = scale < 0 ? x / POW10[-scale] : x * POW10[scale];
+        }
+        return negative ? -x : x;
+    }
+
+    private static double slowParseDouble(ByteBuffer buf, int start, int end) {
+        String s = token(buf, start, end);
+        String unsigned = s.startsWith("-") || s.startsWith("+") ? s.substring(1) : s;
+        if (!unsigned.equals("NaN") && !unsigned.equals("Infinity") && !unsigned.matches("[0-9]*\\.?[0-9]*([eE][-+]?[0-9]+)?"))
+            throw new InputMismatchException();
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new InputMismatchException();
+        }
+    }
+
+    private static String token(ByteBuffer buf, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buf.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        long start = System.nanoTime();
+        EdgeList edges = parse(Path.of(args[0]), true);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d vertices, %d edges parsed in %.3f s\n", edges.V(), edges.E(), seconds);
+    }
+}
@@ -11,6 +11,7 @@ public class EdgeWeightedDigraph {
     private int E;
     private final LinkedList<DirectedEdge>[] adj;
     private int[] indegree;
+    private long version;
 
     public EdgeWeightedDigraph(int V) {
         if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
@@ -57,6 +58,14 @@ public class EdgeWeightedDigraph {
         return E;
     }
 
+    /**
+     * Modification count, changed by every edit to the graph, so results
+     * computed at one version can be told apart from later ones.
+     */
+    public long version() {
+        return version;
+    }
+
     private void validateVertex(int v) {
         if (v < 0 || v > V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
     }
@@ -69,6 +78,7 @@ public class EdgeWeightedDigraph {
         adj[v].add(e);
         indegree[w]++;
         E++;
+        version++;
     }
 
     public Iterable<DirectedEdge> adj(int v) {
@@ -86,6 +96,16 @@ public class EdgeWeightedDigraph {
         return indegree[v];
     }
 
+    public EdgeWeightedDigraph reverse() {
+        EdgeWeightedDigraph reverse = new EdgeWeightedDigraph(V);
+        for (int v = 0; v < V; v++) {
+            for (DirectedEdge e : adj(v)) {
+                reverse.addEdge(new DirectedEdge(e.to(), e.from(), e.weight()));
+            }
+        }
+        return reverse;
+    }
+
     public Iterable<DirectedEdge> edges() {
         LinkedList<DirectedEdge> list = new LinkedList<>();
         for (int v = 0; v < V; v++) {
@@ -0,0 +1,289 @@
+package algs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.InputMismatchException;
+import java.util.List;
+
+/**
+ * Semi-external Kruskal for edge lists that do not fit in memory.
+ * <p>
+ * Only the {@link UnionFind} over the vertices and the forest itself are kept
+ * in memory. The edges of a "V E v w weight" file are streamed into a buffer
+ * bounded by the memory cap; each time it fills, it is sorted by weight and
+ * written to a temporary run file of 16-byte records. The runs are then
+ * merged lazily through a {@link DoubleIndexMinPQ} holding the head of each
+ * run, and the merged stream feeds Kruskal's scan, which stops reading as soon
+ * as V-1 edges are taken. An edge list that fits in one buffer is never
+ * written to disk.
+ * <p>
+ * Edges enter the forest in ascending weight order, as in {@link KruskalMST},
+ * so weight() is the same value.
+ */
+public class ExternalKruskalMST {
+    private static final int RECORD = 16; // int v, int w, double weight
+    private static final long MIN_MEMORY = 1 << 16;
+    private static final int READ_BUFFER = 1 << 16;
+    private static final int MIN_RUN_BUFFER = 1 << 12;
+
+    private final Queue<Edge> mst = new Queue<>();
+    private double weight;
+    private int runs;
+
+    private int V;
+    private UnionFind uf;
+
+    public ExternalKruskalMST(Path file, long memoryBytes) throws IOException {
+        this(file, memoryBytes, null);
+    }
+
+    /**
+     * Builds the forest using at most about memoryBytes for edges, writing the
+     * runs to tempDir, or to the default temporary directory if it is null.
+     */
+    public ExternalKruskalMST(Path file, long memoryBytes, Path tempDir) throws IOException {
+        if (memoryBytes < MIN_MEMORY) throw new IllegalArgumentException("memory cap must be at least " + MIN_MEMORY + " bytes");
+        int capacity = (int) Math.min(memoryBytes / RECORD, Integer.MAX_VALUE - 8);
+        List<Path> files = new ArrayList<>();
+        try (Tokens in = new Tokens(file)) {
+            V = in.nextInt();
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+            long E = in.nextLong();
+            if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative");
+            uf = new UnionFind(V);
+
+            int n = (int) Math.min(E, capacity);
+            int[] v = new int[n];
+            int[] w = new int[n];
+            double[] weights = new double[n];
+            int size = 0;
+            for (long i = 0; i < E; i++) {
+                v[size] = in.nextInt();
+                w[size] = in.nextInt();
+                weights[size] = in.nextDouble();
+                validateVertex(v[size]);
+                validateVertex(w[size]);
+                if (Double.isNaN(weights[size])) throw new IllegalArgumentException("Weight cannot be NaN");
+                if (++size == n && i + 1 < E) {
+                    sort(v, w, weights, 0, size);
+                    files.add(writeRun(tempDir, v, w, weights, size));
+                    size = 0;
+                }
+            }
+            sort(v, w, weights, 0, size);
+            if (files.isEmpty()) {
+                runs = size > 0 ? 1 : 0;
+                for (int k = 0; k < size && mst.size() < V - 1; k++) take(v[k], w[k], weights[k]);
+                return;
+            }
+            if (size > 0) files.add(writeRun(tempDir, v, w, weights, size));
+            runs = files.size();
+            v = w = null;
+            weights = null;
+            merge(files, memoryBytes);
+        } finally {
+            for (Path run : files) Files.deleteIfExists(run);
+        }
+    }
+
+    private void take(int v, int w, double weight) {
+        if (!uf.connected(v, w)) {
+            uf.union(v, w);
+            mst.enqueue(new Edge(v, w, weight));
+            this.weight += weight;
+        }
+    }
+
+    private static Path writeRun(Path tempDir, int[] v, int[] w, double[] weights, int size) throws IOException {
+        Path run = tempDir == null ? Files.createTempFile("kruskal", ".run") : Files.createTempFile(tempDir, "kruskal", ".run");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), READ_BUFFER))) {
+            for (int k = 0; k < size; k++) {
+                out.writeInt(v[k]);
+                out.writeInt(w[k]);
+                out.writeDouble(weights[k]);
+            }
+        }
+        return run;
+    }
+
+    // k-way merge with the memory cap split among the read buffers
+    private void merge(List<Path> files, long memoryBytes) throws IOException {
+        int k = files.size();
+        int buffer = (int) Math.max(MIN_RUN_BUFFER, Math.min(memoryBytes / k, 1 << 24));
+        DataInputStream[] in = new DataInputStream[k];
+        int[] headV = new int[k];
+        int[] headW = new int[k];
+        DoubleIndexMinPQ pq = new DoubleIndexMinPQ(k);
+        try {
+            for (int r = 0; r < k; r++) {
+                in[r] = new DataInputStream(new BufferedInputStream(Files.newInputStream(files.get(r)), buffer));
+                advance(in, r, headV, headW, pq);
+            }
+            while (!pq.isEmpty() && mst.size() < V - 1) {
+                double weight = pq.minKey();
+                int r = pq.delMin();
+                take(headV[r], headW[r], weight);
+                advance(in, r, headV, headW, pq);
+            }
+        } finally {
+            for (DataInputStream stream : in) {
+                if (stream != null) stream.close();
+            }
+        }
+    }
+
+    private static void advance(DataInputStream[] in, int r, int[] headV, int[] headW, DoubleIndexMinPQ pq) throws IOException {
+        try {
+            headV[r] = in[r].readInt();
+            headW[r] = in[r].readInt();
+            pq.insert(r, in[r].readDouble());
+        } catch (EOFException e) {
+            in[r].close();
+        }
+    }
+
+    // sorts the parallel arrays by weight over [lo, hi)
+    private static void sort(int[] v, int[] w, double[] weights, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            if (weights[mid] < weights[lo]) swap(v, w, weights, mid, lo);
+            if (weights[hi - 1] < weights[lo]) swap(v, w, weights, hi - 1, lo);
+            if (weights[hi - 1] < weights[mid]) swap(v, w, weights, hi - 1, mid);
+            double pivot = weights[mid];
+            int i = lo, j = hi - 1;
+            while (i <= j) {
+                while (weights[i] < pivot) i++;
+                while (pivot < weights[j]) j--;
+                if (i <= j) swap(v, w, weights, i++, j--);
+            }
+            if (j - lo < hi - i) {
+                sort(v, w, weights, lo, j + 1);
+                lo = i;
+            } else {
+                sort(v, w, weights, i, hi);
+                hi = j + 1;
+            }
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && weights[j] < weights[j - 1]; j--) swap(v, w, weights, j, j - 1);
+        }
+    }
+
+    private static void swap(int[] v, int[] w, double[] weights, int i, int j) {
+        int t = v[i];
+        v[i] = v[j];
+        v[j] = t;
+        t = w[i];
+        w[i] = w[j];
+        w[j] = t;
+        double x = weights[i];
+        weights[i] = weights[j];
+        weights[j] = x;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    public Iterable<Edge> edges() {
+        return mst;
+    }
+
+    /**
+     * Number of sorted runs the edges were split into.
+     */
+    public int runs() {
+        return runs;
+    }
+
+    // whitespace-separated tokens read through a fixed buffer, parsed by EdgeListParser
+    private static class Tokens implements AutoCloseable {
+        private final InputStream in;
+        private final byte[] bytes = new byte[READ_BUFFER];
+        private int position;
+        private int limit;
+        private final ByteBuffer token = ByteBuffer.allocate(64);
+
+        Tokens(Path file) throws IOException {
+            if (!Files.exists(file)) throw new NoSuchFileException(file.toString());
+            in = Files.newInputStream(file);
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(bytes);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        // fills token with the next token and returns its length
+        private int next() throws IOException {
+            int b = read();
+            while (b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f') b = read();
+            if (b == -1) throw new IllegalArgumentException("input ends before the last edge");
+            token.clear();
+            while (b != -1 && b != ' ' && b != '\n' && b != '\r' && b != '\t' && b != '\f') {
+                if (!token.hasRemaining()) throw new InputMismatchException();
+                token.put((byte) b);
+                b = read();
+            }
+            return token.position();
+        }
+
+        int nextInt() throws IOException {
+            return EdgeListParser.parseInt(token, 0, next());
+        }
+
+        long nextLong() throws IOException {
+            int length = next();
+            int i = token.get(0) == '-' ? 1 : 0;
+            if (i == length) throw new InputMismatchException();
+            long x = 0;
+            for (; i < length; i++) {
+                int d = token.get(i) - '0';
+                if (d < 0 || d > 9 || x > Long.MAX_VALUE / 10) throw new InputMismatchException();
+                x = x * 10 + d;
+            }
+            return token.get(0) == '-' ? -x : x;
+        }
+
+        double nextDouble() throws IOException {
+            return EdgeListParser.parseDouble(token, 0, next());
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) throw new IllegalArgumentException("Wrong number of arguments");
+        Path file = Path.of(args[0]);
+        long memory = Long.parseLong(args[1]);
+        ExternalKruskalMST mst = new ExternalKruskalMST(file, memory);
+        for (Edge e : mst.edges()) {
+            System.out.println(e);
+        }
+        System.out.printf("%.5f\n", mst.weight());
+    }
+}
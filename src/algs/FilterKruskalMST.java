@@ -0,0 +1,250 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Filter-Kruskal minimum spanning forest (Osipov, Sanders and Singler).
+ * <p>
+ * Edges are kept as primitive arrays and ordered by (weight, position in
+ * {@link EdgeWeightedGraph#edges()}). A range of edges is split three ways
+ * around a sampled pivot weight; the lighter part is solved first, the edges
+ * of pivot weight next, and the heavier part is then filtered, dropping every
+ * edge whose endpoints are already connected, before recursing into it. Small
+ * ranges are sorted and scanned as in plain Kruskal. Heavy edges that the
+ * forest never needs are discarded by the filter without being sorted, and the
+ * search stops once V-1 edges are taken.
+ * <p>
+ * Large ranges are partitioned in parallel: chunks are counted, offsets come
+ * from a prefix sum, and each chunk scatters its edges into a buffer. The partition
+ * is stable, so edges of equal weight stay in position order and the result
+ * is the same as a sequential sort.
+ */
+public class FilterKruskalMST {
+    private static final int SORT_THRESHOLD = 1024;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK = 1 << 14;
+
+    private final Queue<Edge> mst = new Queue<>();
+    private double weight;
+
+    private final ForkJoinPool pool;
+    private final Edge[] edges;
+    private final int[] v;
+    private final int[] w;
+    private final double[] weights;
+    private final int[] ids;
+    private final int[] buffer;
+    private final UnionFind uf;
+    private final int target;
+    private final Random random = new Random(0);
+
+    public FilterKruskalMST(EdgeWeightedGraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public FilterKruskalMST(EdgeWeightedGraph G, ForkJoinPool pool) {
+        this.pool = pool;
+        int E = G.E();
+        edges = new Edge[E];
+        int m = 0;
+        for (Edge e : G.edges()) edges[m++] = e;
+        v = new int[m];
+        w = new int[m];
+        weights = new double[m];
+        ids = new int[m];
+        buffer = new int[m];
+        for (int i = 0; i < m; i++) {
+            v[i] = edges[i].either();
+            w[i] = edges[i].other(v[i]);
+            weights[i] = edges[i].weight();
+            ids[i] = i;
+        }
+        uf = new UnionFind(G.V());
+        target = Math.max(G.V() - 1, 0);
+        filterKruskal(0, m);
+    }
+
+    private void filterKruskal(int lo, int hi) {
+        if (mst.size() == target || lo >= hi) return;
+        if (hi - lo <= SORT_THRESHOLD) {
+            sort(lo, hi);
+            kruskal(lo, hi);
+            return;
+        }
+        double pivot = pivot(lo, hi);
+        int[] bounds = partition(lo, hi, pivot);
+        int lt = bounds[0];
+        int gt = bounds[1];
+        filterKruskal(lo, lt);
+        kruskal(lt, gt); // equal weights, already in position order
+        if (mst.size() == target) return;
+        filterKruskal(gt, filter(gt, hi));
+    }
+
+    private void kruskal(int lo, int hi) {
+        for (int k = lo; k < hi && mst.size() < target; k++) {
+            int id = ids[k];
+            if (!uf.connected(v[id], w[id])) {
+                uf.union(v[id], w[id]);
+                mst.enqueue(edges[id]);
+                weight += weights[id];
+            }
+        }
+    }
+
+    // keeps the edges of ids[lo..hi) that still join two components, in order; returns the new end
+    private int filter(int lo, int hi) {
+        int n = lo;
+        for (int k = lo; k < hi; k++) {
+            int id = ids[k];
+            if (!uf.connected(v[id], w[id])) ids[n++] = id;
+        }
+        return n;
+    }
+
+    // median of three sampled weights
+    private double pivot(int lo, int hi) {
+        double a = weights[ids[lo + random.nextInt(hi - lo)]];
+        double b = weights[ids[lo + random.nextInt(hi - lo)]];
+        double c = weights[ids[lo + random.nextInt(hi - lo)]];
+        if (Double.compare(a, b) > 0) {
+            double t = a;
+            a = b;
+            b = t;
+        }
+        if (Double.compare(b, c) > 0) b = c;
+        return Double.compare(a, b) > 0 ? a : b;
+    }
+
+    private static int side(double weight, double pivot) {
+        int c = Double.compare(weight, pivot);
+        return c < 0 ? 0 : c == 0 ? 1 : 2;
+    }
+
+    // stable three-way split of ids[lo..hi); returns the starts of the equal and greater parts
+    private int[] partition(int lo, int hi, double pivot) {
+        int n = hi - lo;
+        int size = n < PARALLEL_THRESHOLD ? n : CHUNK;
+        int chunks = (n + size - 1) / size;
+        int[][] counts = new int[chunks][3];
+        forEachChunk(chunks, c -> {
+            int end = Math.min(lo + (c + 1) * size, hi);
+            for (int k = lo + c * size; k < end; k++) counts[c][side(weights[ids[k]], pivot)]++;
+        });
+        int[][] offsets = new int[chunks][3];
+        int offset = lo;
+        for (int s = 0; s < 3; s++) {
+            for (int c = 0; c < chunks; c++) {
+                offsets[c][s] = offset;
+                offset += counts[c][s];
+            }
+        }
+        forEachChunk(chunks, c -> {
+            int end = Math.min(lo + (c + 1) * size, hi);
+            int[] next = offsets[c].clone();
+            for (int k = lo + c * size; k < end; k++) buffer[next[side(weights[ids[k]], pivot)]++] = ids[k];
+        });
+        System.arraycopy(buffer, lo, ids, lo, n);
+        return new int[] { offsets[0][1], offsets[0][2] };
+    }
+
+    private interface ChunkBody {
+        void run(int chunk);
+    }
+
+    private void forEachChunk(int chunks, ChunkBody body) {
+        if (chunks == 1) body.run(0);
+        else pool.invoke(new Chunks(body, 0, chunks));
+    }
+
+    private static class Chunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkBody body;
+        private final int lo;
+        private final int hi;
+
+        Chunks(ChunkBody body, int lo, int hi) {
+            this.body = body;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.run(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Chunks(body, lo, mid), new Chunks(body, mid, hi));
+        }
+    }
+
+    private boolean less(int a, int b) {
+        int c = Double.compare(weights[a], weights[b]);
+        return c < 0 || c == 0 && a < b;
+    }
+
+    // sorts ids[lo..hi) by (weight, id); the order is total, so stability is not needed
+    private void sort(int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            if (less(ids[mid], ids[lo])) swap(mid, lo);
+            if (less(ids[hi - 1], ids[lo])) swap(hi - 1, lo);
+            if (less(ids[hi - 1], ids[mid])) swap(hi - 1, mid);
+            int pivot = ids[mid];
+            int i = lo, j = hi - 1;
+            while (i <= j) {
+                while (less(ids[i], pivot)) i++;
+                while (less(pivot, ids[j])) j--;
+                if (i <= j) swap(i++, j--);
+            }
+            // recurse into the smaller side, loop on the larger
+            if (j - lo < hi - i) {
+                sort(lo, j + 1);
+                lo = i;
+            } else {
+                sort(i, hi);
+                hi = j + 1;
+            }
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && less(ids[j], ids[j - 1]); j--) swap(j, j - 1);
+        }
+    }
+
+    private void swap(int i, int j) {
+        int t = ids[i];
+        ids[i] = ids[j];
+        ids[j] = t;
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    public Iterable<Edge> edges() {
+        return mst;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+            FilterKruskalMST mst = new FilterKruskalMST(G);
+            for (Edge e : mst.edges()) {
+                System.out.println(e);
+            }
+            System.out.printf("%.5f\n", mst.weight());
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Scanner;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Versioned binary graph format and its memory-mapped loader.
+ * <p>
+ * Layout (little-endian): a 32 byte header holding the magic number, the format
+ * version, the flags, V, E and the number of adjacency entries A, followed by
+ * {@code int offsets[V + 1]}, {@code int targets[A]}, padding to 8 bytes and,
+ * for weighted graphs, {@code double weights[A]}. Adjacency lists are stored
+ * exactly as {@code adj(v)} returns them, so undirected graphs keep both
+ * directions of every edge.
+ */
+public class GraphFile {
+    public static final int MAGIC = 0x47534c41; // "ALSG"
+    public static final int VERSION = 1;
+    public static final int DIRECTED = 1;
+    public static final int WEIGHTED = 2;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int BLOCK = 1 << 16;
+
+    private GraphFile() {
+    }
+
+    public static void write(Graph G, Path file) throws IOException {
+        int[] offsets = new int[G.V() + 1];
+        int[] targets = new int[adjacencyCount(G.V(), G::degree)];
+        int i = 0;
+        for (int v = 0; v < G.V(); v++) {
+            offsets[v] = i;
+            for (int w : G.adj(v)) targets[i++] = w;
+        }
+        offsets[G.V()] = i;
+        write(file, 0, G.V(), G.E(), offsets, targets, null);
+    }
+
+    public static void write(Digraph G, Path file) throws IOException {
+        int[] offsets = new int[G.V() + 1];
+        int[] targets = new int[adjacencyCount(G.V(), G::outdegree)];
+        int i = 0;
+        for (int v = 0; v < G.V(); v++) {
+            offsets[v] = i;
+            for (int w : G.adj(v)) targets[i++] = w;
+        }
+        offsets[G.V()] = i;
+        write(file, DIRECTED, G.V(), G.E(), offsets, targets, null);
+    }
+
+    public static void write(EdgeWeightedGraph G, Path file) throws IOException {
+        int A = adjacencyCount(G.V(), G::degree);
+        int[] offsets = new int[G.V() + 1];
+        int[] targets = new int[A];
+        double[] weights = new double[A];
+        int i = 0;
+        for (int v = 0; v < G.V(); v++) {
+            offsets[v] = i;
+            for (Edge e : G.adj(v)) {
+                targets[i] = e.other(v);
+                weights[i++] = e.weight();
+            }
+        }
+        offsets[G.V()] = i;
+        write(file, WEIGHTED, G.V(), G.E(), offsets, targets, weights);
+    }
+
+    public static void write(EdgeWeightedDigraph G, Path file) throws IOException {
+        CompactEdgeWeightedDigraph C = new CompactEdgeWeightedDigraph(G);
+        write(file, DIRECTED | WEIGHTED, C.V(), C.E(), C.offsets(), C.targets(), C.weights());
+    }
+
+    public static void write(CompactEdgeWeightedDigraph G, Path file) throws IOException {
+        write(file, DIRECTED | WEIGHTED, G.V(), G.E(), G.offsets(), G.targets(), G.weights());
+    }
+
+    private static int adjacencyCount(int V, IntUnaryOperator degree) {
+        long A = 0;
+        for (int v = 0; v < V; v++) A += degree.applyAsInt(v);
+        if (A > Integer.MAX_VALUE / Double.BYTES) throw new IllegalArgumentException("Graph has too many adjacency entries");
+        return (int) A;
+    }
+
+    private static long padding(long position) {
+        return (Double.BYTES - position % Double.BYTES) % Double.BYTES;
+    }
+
+    private static void write(Path file, int flags, int V, int E, int[] offsets, int[] targets, double[] weights)
+            throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BLOCK).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(V).putLong(E).putLong(targets.length);
+            for (int x : offsets) {
+                if (buf.remaining() < Integer.BYTES) flush(ch, buf);
+                buf.putInt(x);
+            }
+            for (int x : targets) {
+                if (buf.remaining() < Integer.BYTES) flush(ch, buf);
+                buf.putInt(x);
+            }
+            if (weights != null) {
+                long position = HEADER_BYTES + (long) Integer.BYTES * (offsets.length + targets.length);
+                for (long p = padding(position); p > 0; p--) {
+                    if (!buf.hasRemaining()) flush(ch, buf);
+                    buf.put((byte) 0);
+                }
+                for (double x : weights) {
+                    if (buf.remaining() < Double.BYTES) flush(ch, buf);
+                    buf.putDouble(x);
+                }
+            }
+            flush(ch, buf);
+        }
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * Maps a graph file into memory. Only the header is read eagerly, so the cost
+     * does not depend on the size of the graph.
+     */
+    public static MappedGraph open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) throw new IllegalArgumentException("File " + file + " is not a graph file");
+            ByteBuffer header = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) throw new IllegalArgumentException("File " + file + " is not a graph file");
+            int version = header.getInt();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported graph file version " + version);
+            int flags = header.getInt();
+            int V = header.getInt();
+            long E = header.getLong();
+            long A = header.getLong();
+            if (V < 0 || E < 0 || A < 0 || A > Integer.MAX_VALUE / Double.BYTES || E > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Corrupt graph file header");
+
+            long position = HEADER_BYTES;
+            long offsetsBytes = (long) Integer.BYTES * (V + 1);
+            long targetsBytes = (long) Integer.BYTES * A;
+            long weightsBytes = (flags & WEIGHTED) != 0 ? (long) Double.BYTES * A : 0;
+            long expected = position + offsetsBytes + targetsBytes;
+            if (weightsBytes > 0) expected += padding(expected) + weightsBytes;
+            if (size < expected) throw new IllegalArgumentException("Graph file " + file + " is truncated");
+
+            IntBuffer offsets = map(ch, position, offsetsBytes).asIntBuffer();
+            position += offsetsBytes;
+            IntBuffer targets = map(ch, position, targetsBytes).asIntBuffer();
+            position += targetsBytes;
+            DoubleBuffer weights = null;
+            if (weightsBytes > 0) {
+                position += padding(position);
+                weights = map(ch, position, weightsBytes).asDoubleBuffer();
+            }
+            return new MappedGraph(flags, V, (int) E, offsets, targets, weights);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel ch, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Graph file section is too large to map");
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, position, size);
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        return buf;
+    }
+
+    /**
+     * Converts a graph in the text format read by the Scanner constructors.
+     * The kind is one of "graph", "digraph", "ewgraph" or "ewdigraph".
+     */
+    public static void convert(String kind, File text, Path binary) throws IOException {
+        try (Scanner in = new Scanner(text)) {
+            switch (kind) {
+                case "graph" -> write(new Graph(in), binary);
+                case "digraph" -> write(new Digraph(in), binary);
+                case "ewgraph" -> write(new EdgeWeightedGraph(in), binary);
+                case "ewdigraph" -> write(new EdgeWeightedDigraph(in), binary);
+                default -> throw new IllegalArgumentException("Unknown graph kind " + kind);
+            }
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + text + " not found");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3) {
+            convert(args[0], new File(args[1]), Path.of(args[2]));
+        } else if (args.length == 1) {
+            MappedGraph G = open(Path.of(args[0]));
+            System.out.println(G);
+        } else if (args.length == 2) {
+            // shortest paths from s, searched in the mapping without loading the graph
+            MappedGraph G = open(Path.of(args[0]));
+            int s = Integer.parseInt(args[1]);
+            CompactDijkstraSP sp = new CompactDijkstraSP(G, s);
+            for (int v = 0; v < G.V(); v++) {
+                if (sp.hasPathTo(v)) System.out.printf("%d to %d: (%.2f)\n", s, v, sp.distTo(v));
+                else System.out.printf("%d to %d: no path\n", s, v);
+            }
+        } else {
+            throw new IllegalArgumentException("Wrong number of arguments");
+        }
+    }
+}
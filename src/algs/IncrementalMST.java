@@ -0,0 +1,134 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+/**
+ * Minimum spanning forest maintained under edge insertions.
+ * <p>
+ * The forest is stored in a {@link LinkCutTree} in which every tree edge is a
+ * node of its own, between the nodes of its endpoints, valued by its weight.
+ * An edge joining two trees is linked in. An edge inside a tree closes a
+ * cycle with the tree path between its endpoints: if the heaviest edge on that
+ * path is heavier than the new one it is cut out and the new edge linked in
+ * its place, otherwise the new edge is dropped. By the cycle property the
+ * result is again a minimum spanning forest, at amortized O(log V) per
+ * insertion.
+ */
+public class IncrementalMST {
+    private final int V;
+    private final LinkCutTree lct;
+    private final Edge[] edgeAt; // tree edge held by each edge node, indexed from V; at most V-1 exist
+    private final int[] free;
+    private int freeCount;
+    private int size;
+    private double weight;
+
+    public IncrementalMST(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        this.V = V;
+        lct = new LinkCutTree(V);
+        edgeAt = new Edge[Math.max(V - 1, 1)];
+        free = new int[edgeAt.length];
+    }
+
+    public IncrementalMST(EdgeWeightedGraph G) {
+        this(G.V());
+        for (Edge e : G.edges()) addEdge(e);
+    }
+
+    /**
+     * Inserts e and returns true if it entered the forest.
+     */
+    public boolean addEdge(Edge e) {
+        int v = e.either();
+        int w = e.other(v);
+        validateVertex(v);
+        validateVertex(w);
+        if (v == w) return false;
+        if (lct.connected(v, w)) {
+            int heaviest = lct.pathMax(v, w);
+            Edge f = edgeAt[heaviest - V];
+            if (!(e.weight() < f.weight())) return false;
+            remove(heaviest);
+        }
+        insert(e, v, w);
+        return true;
+    }
+
+    private void insert(Edge e, int v, int w) {
+        int x;
+        if (freeCount > 0) {
+            x = free[--freeCount];
+            lct.setValue(x, e.weight());
+        } else {
+            x = lct.addNode(e.weight());
+        }
+        edgeAt[x - V] = e;
+        lct.link(v, x);
+        lct.link(x, w);
+        size++;
+        weight += e.weight();
+    }
+
+    private void remove(int x) {
+        Edge f = edgeAt[x - V];
+        int v = f.either();
+        int w = f.other(v);
+        lct.cut(v, x);
+        lct.cut(x, w);
+        edgeAt[x - V] = null;
+        free[freeCount++] = x;
+        size--;
+        weight -= f.weight();
+    }
+
+    public boolean connected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return lct.connected(v, w);
+    }
+
+    /**
+     * Number of edges in the forest.
+     */
+    public int size() {
+        return size;
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    public Iterable<Edge> edges() {
+        Queue<Edge> mst = new Queue<>();
+        for (Edge e : edgeAt) {
+            if (e != null) mst.enqueue(e);
+        }
+        return mst;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedGraph G = new EdgeWeightedGraph(in);
+            IncrementalMST mst = new IncrementalMST(G.V());
+            for (Edge e : G.edges()) {
+                boolean added = mst.addEdge(e);
+                System.out.printf("insert %s: %s, weight %.5f\n", e, added ? "added" : "skipped", mst.weight());
+            }
+            for (Edge e : mst.edges()) {
+                System.out.println(e);
+            }
+            System.out.printf("%.5f\n", mst.weight());
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
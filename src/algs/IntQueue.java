@@ -0,0 +1,159 @@
+package algs;
+
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * FIFO queue of primitive ints on a growable circular array, for vertex
+ * worklists. Nothing is boxed and nothing is allocated except on resizes.
+ */
+public class IntQueue {
+    private static final int INIT_CAPACITY = 8;
+
+    private int[] q;
+    private int first;
+    private int size;
+
+    public IntQueue() {
+        this(INIT_CAPACITY);
+    }
+
+    /**
+     * A queue that holds capacity ints before it first grows.
+     */
+    public IntQueue(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must be non-negative");
+        q = new int[Math.max(capacity, 1)];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int peek() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+        return q[first];
+    }
+
+    public void enqueue(int x) {
+        if (size == q.length) resize(2 * q.length);
+        int i = first + size;
+        if (i >= q.length) i -= q.length;
+        q[i] = x;
+        size++;
+    }
+
+    public int dequeue() {
+        if (isEmpty()) throw new NoSuchElementException("Queue is empty");
+        int x = q[first];
+        if (++first == q.length) first = 0;
+        size--;
+        return x;
+    }
+
+    /**
+     * Returns the i-th int from the front without removing it.
+     */
+    public int get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (size - 1));
+        int k = first + i;
+        return q[k >= q.length ? k - q.length : k];
+    }
+
+    /**
+     * Empties the queue, keeping its array.
+     */
+    public void clear() {
+        first = 0;
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        int[] temp = new int[capacity];
+        int head = Math.min(size, q.length - first);
+        System.arraycopy(q, first, temp, 0, head);
+        System.arraycopy(q, 0, temp, head, size - head);
+        q = temp;
+        first = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            s.append(get(i)).append(" ");
+        }
+        return s.toString();
+    }
+
+    /**
+     * Benchmarks a Bellman-Ford style worklist: a queue of up to V vertex ids,
+     * each round dequeuing one and enqueuing a random number of others, on
+     * IntQueue, Queue&lt;Integer&gt; and a node-per-element LinkedList.
+     */
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+        int[] pushes = new int[1 << 16];
+        Random random = new Random(1);
+        for (int i = 0; i < pushes.length; i++) pushes[i] = random.nextInt(3);
+        for (int round = 0; round < 3; round++) {
+            System.out.println("round " + round);
+            long checksum = 0;
+
+            long bytes = Benchmarks.allocatedBytes(), gcs = Benchmarks.gcCount(), gcTime = Benchmarks.gcMillis(), start = System.nanoTime();
+            IntQueue ints = new IntQueue();
+            ints.enqueue(0);
+            for (int i = 0, next = 1; i < ops; i++) {
+                if (ints.isEmpty()) ints.enqueue(next);
+                checksum += ints.dequeue();
+                for (int k = pushes[i & (pushes.length - 1)]; k > 0 && ints.size() < V; k--) {
+                    ints.enqueue(next);
+                    next = next + 7919 < V ? next + 7919 : next + 7919 - V;
+                }
+            }
+            Benchmarks.report("IntQueue", ops, System.nanoTime() - start, Benchmarks.allocatedBytes() - bytes,
+                    Benchmarks.gcCount() - gcs, Benchmarks.gcMillis() - gcTime);
+
+            bytes = Benchmarks.allocatedBytes();
+            gcs = Benchmarks.gcCount();
+            gcTime = Benchmarks.gcMillis();
+            start = System.nanoTime();
+            Queue<Integer> boxed = new Queue<>();
+            boxed.enqueue(0);
+            for (int i = 0, next = 1; i < ops; i++) {
+                if (boxed.isEmpty()) boxed.enqueue(next);
+                checksum -= boxed.dequeue();
+                for (int k = pushes[i & (pushes.length - 1)]; k > 0 && boxed.size() < V; k--) {
+                    boxed.enqueue(next);
+                    next = next + 7919 < V ? next + 7919 : next + 7919 - V;
+                }
+            }
+            Benchmarks.report("Queue<Integer>", ops, System.nanoTime() - start, Benchmarks.allocatedBytes() - bytes,
+                    Benchmarks.gcCount() - gcs, Benchmarks.gcMillis() - gcTime);
+
+            bytes = Benchmarks.allocatedBytes();
+            gcs = Benchmarks.gcCount();
+            gcTime = Benchmarks.gcMillis();
+            start = System.nanoTime();
+            LinkedList<Integer> linked = new LinkedList<>();
+            linked.addLast(0);
+            for (int i = 0, next = 1; i < ops; i++) {
+                if (linked.isEmpty()) linked.addLast(next);
+                checksum += linked.removeFirst();
+                for (int k = pushes[i & (pushes.length - 1)]; k > 0 && linked.size() < V; k--) {
+                    linked.addLast(next);
+                    next = next + 7919 < V ? next + 7919 : next + 7919 - V;
+                }
+            }
+            Benchmarks.report("LinkedList<Integer>", ops, System.nanoTime() - start, Benchmarks.allocatedBytes() - bytes,
+                    Benchmarks.gcCount() - gcs, Benchmarks.gcMillis() - gcTime);
+            System.out.println("checksum " + checksum);
+        }
+    }
+}
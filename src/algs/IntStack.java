@@ -0,0 +1,126 @@
+package algs;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * LIFO stack of primitive ints on a growable array.
+ */
+public class IntStack {
+    private static final int INIT_CAPACITY = 8;
+
+    private int[] a;
+    private int n;
+
+    public IntStack() {
+        this(INIT_CAPACITY);
+    }
+
+    /**
+     * A stack that holds capacity ints before it first grows.
+     */
+    public IntStack(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must be non-negative");
+        a = new int[Math.max(capacity, 1)];
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public void push(int x) {
+        if (n == a.length) resize(2 * a.length);
+        a[n++] = x;
+    }
+
+    public int pop() {
+        if (isEmpty()) throw new NoSuchElementException("Stack is empty");
+        return a[--n];
+    }
+
+    public int peek() {
+        if (isEmpty()) throw new NoSuchElementException("Stack is empty");
+        return a[n - 1];
+    }
+
+    /**
+     * Returns the i-th int from the top without removing it.
+     */
+    public int get(int i) {
+        if (i < 0 || i >= n) throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (n - 1));
+        return a[n - 1 - i];
+    }
+
+    /**
+     * Empties the stack, keeping its array.
+     */
+    public void clear() {
+        n = 0;
+    }
+
+    private void resize(int capacity) {
+        int[] temp = new int[capacity];
+        System.arraycopy(a, 0, temp, 0, n);
+        a = temp;
+    }
+
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = n - 1; i >= 0; i--) {
+            s.append(a[i]).append(" ");
+        }
+        return s.toString();
+    }
+
+    /**
+     * Benchmarks a depth-first style worklist of vertex ids on IntStack and
+     * Stack&lt;Integer&gt;, reporting time, allocation and collections.
+     */
+    public static void main(String[] args) {
+        int V = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+        int[] pushes = new int[1 << 16];
+        Random random = new Random(1);
+        for (int i = 0; i < pushes.length; i++) pushes[i] = random.nextInt(3);
+        for (int round = 0; round < 3; round++) {
+            System.out.println("round " + round);
+            long checksum = 0;
+
+            long bytes = Benchmarks.allocatedBytes(), gcs = Benchmarks.gcCount(), gcTime = Benchmarks.gcMillis(), start = System.nanoTime();
+            IntStack ints = new IntStack();
+            ints.push(0);
+            for (int i = 0, next = 1; i < ops; i++) {
+                if (ints.isEmpty()) ints.push(next);
+                checksum += ints.pop();
+                for (int k = pushes[i & (pushes.length - 1)]; k > 0 && ints.size() < V; k--) {
+                    ints.push(next);
+                    next = next + 7919 < V ? next + 7919 : next + 7919 - V;
+                }
+            }
+            Benchmarks.report("IntStack", ops, System.nanoTime() - start, Benchmarks.allocatedBytes() - bytes,
+                    Benchmarks.gcCount() - gcs, Benchmarks.gcMillis() - gcTime);
+
+            bytes = Benchmarks.allocatedBytes();
+            gcs = Benchmarks.gcCount();
+            gcTime = Benchmarks.gcMillis();
+            start = System.nanoTime();
+            Stack<Integer> boxed = new Stack<>();
+            boxed.push(0);
+            for (int i = 0, next = 1; i < ops; i++) {
+                if (boxed.isEmpty()) boxed.push(next);
+                checksum -= boxed.pop();
+                for (int k = pushes[i & (pushes.length - 1)]; k > 0 && boxed.size() < V; k--) {
+                    boxed.push(next);
+                    next = next + 7919 < V ? next + 7919 : next + 7919 - V;
+                }
+            }
+            Benchmarks.report("Stack<Integer>", ops, System.nanoTime() - start, Benchmarks.allocatedBytes() - bytes,
+                    Benchmarks.gcCount() - gcs, Benchmarks.gcMillis() - gcTime);
+            System.out.println("checksum " + checksum);
+        }
+    }
+}
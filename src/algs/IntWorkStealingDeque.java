@@ -0,0 +1,195 @@
+package algs;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Work-stealing deque of non-negative ints (Chase and Lev).
+ * <p>
+ * One owner thread pushes and pops at the bottom as with a stack, touching
+ * only its own index except when the deque is down to one element; any number
+ * of thieves take from the top with a compare-and-set. The circular array
+ * grows when full, and thieves holding the old array still read correct
+ * values from it, since a slot is never reused before top has passed it.
+ * Giving each worker of a parallel traversal its own deque keeps the common
+ * case free of contention and lets idle workers balance the load.
+ */
+public class IntWorkStealingDeque {
+    private static final int INIT_CAPACITY = 64;
+
+    private volatile int[] array;
+    private volatile long bottom;
+    private final AtomicLong top = new AtomicLong();
+
+    public IntWorkStealingDeque() {
+        this(INIT_CAPACITY);
+    }
+
+    /**
+     * A deque holding at least capacity ints before it first grows.
+     */
+    public IntWorkStealingDeque(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        int n = Integer.highestOneBit(capacity);
+        if (n < capacity) n <<= 1;
+        array = new int[n];
+    }
+
+    public int size() {
+        long size = bottom - top.get();
+        return (int) Math.max(size, 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Adds x at the bottom. Only the owner may call this.
+     */
+    public void push(int x) {
+        if (x < 0) throw new IllegalArgumentException("value " + x + " is negative");
+        long b = bottom;
+        long t = top.get();
+        int[] a = array;
+        if (b - t >= a.length) a = grow(a, b, t);
+        a[(int) b & (a.length - 1)] = x;
+        bottom = b + 1;
+    }
+
+    /**
+     * Removes and returns the int at the bottom, or -1 if the deque is empty.
+     * Only the owner may call this.
+     */
+    public int pop() {
+        long b = bottom - 1;
+        int[] a = array;
+        bottom = b;
+        long t = top.get();
+        if (t > b) {
+            bottom = b + 1;
+            return -1;
+        }
+        int x = a[(int) b & (a.length - 1)];
+        if (t == b) {
+            // the last element: race the thieves for it through top
+            if (!top.compareAndSet(t, t + 1)) x = -1;
+            bottom = b + 1;
+        }
+        return x;
+    }
+
+    /**
+     * Removes and returns the int at the top, or -1 if the deque is empty.
+     * Any thread may call this.
+     */
+    public int steal() {
+        while (true) {
+            long t = top.get();
+            long b = bottom;
+            if (t >= b) return -1;
+            int[] a = array;
+            int x = a[(int) t & (a.length - 1)];
+            if (top.compareAndSet(t, t + 1)) return x;
+        }
+    }
+
+    private int[] grow(int[] a, long b, long t) {
+        int[] bigger = new int[2 * a.length];
+        for (long i = t; i < b; i++) {
+            bigger[(int) i & (bigger.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        array = bigger;
+        return bigger;
+    }
+
+    /**
+     * Stress test and benchmark: each worker owns a deque, pushes its own
+     * range of ids and pops them, stealing from the others once it runs dry,
+     * against the same scheme on ConcurrentLinkedDeque&lt;Integer&gt;. Every id
+     * must be taken exactly once.
+     */
+    public static void main(String[] args) throws Exception {
+        int ids = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(Runtime.getRuntime().availableProcessors(), 2);
+
+        for (int round = 0; round < 3; round++) {
+            for (int mode = 0; mode < 2; mode++) {
+                boolean linked = mode == 1;
+                IntWorkStealingDeque[] deques = new IntWorkStealingDeque[threads];
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                ConcurrentLinkedDeque<Integer>[] linkedDeques = new ConcurrentLinkedDeque[threads];
+                for (int t = 0; t < threads; t++) {
+                    deques[t] = new IntWorkStealingDeque();
+                    linkedDeques[t] = new ConcurrentLinkedDeque<>();
+                }
+                byte[] seen = new byte[ids];
+                AtomicInteger taken = new AtomicInteger();
+                AtomicInteger stolen = new AtomicInteger();
+                Thread[] workers = new Thread[threads];
+                for (int t = 0; t < threads; t++) {
+                    int self = t;
+                    // uneven ranges, so that stealing has something to do
+                    int lo = (int) ((long) ids * t * t / ((long) threads * threads));
+                    int hi = (int) ((long) ids * (t + 1) * (t + 1) / ((long) threads * threads));
+                    workers[t] = new Thread(() -> {
+                        int own = 0;
+                        int steals = 0;
+                        for (int i = lo; i < hi; i++) {
+                            if (linked) linkedDeques[self].addLast(i);
+                            else deques[self].push(i);
+                            // pop every other push, leaving work for the thieves
+                            if ((i & 1) == 1) {
+                                int x = linked ? orNone(linkedDeques[self].pollLast()) : deques[self].pop();
+                                if (x >= 0) {
+                                    take(seen, x);
+                                    own++;
+                                }
+                            }
+                        }
+                        while (true) {
+                            int x = linked ? orNone(linkedDeques[self].pollLast()) : deques[self].pop();
+                            if (x < 0) break;
+                            take(seen, x);
+                            own++;
+                        }
+                        taken.addAndGet(own);
+                        while (taken.get() < ids) {
+                            int got = 0;
+                            for (int k = 1; k < threads; k++) {
+                                int victim = (self + k) % threads;
+                                int x = linked ? orNone(linkedDeques[victim].pollFirst()) : deques[victim].steal();
+                                if (x >= 0) {
+                                    take(seen, x);
+                                    got++;
+                                }
+                            }
+                            if (got == 0) Thread.yield();
+                            steals += got;
+                            taken.addAndGet(got);
+                        }
+                        stolen.addAndGet(steals);
+                    });
+                }
+                long start = System.nanoTime();
+                for (Thread worker : workers) worker.start();
+                for (Thread worker : workers) worker.join();
+                double ms = (System.nanoTime() - start) / 1e6;
+                for (int i = 0; i < ids; i++) {
+                    if (seen[i] != 1) throw new IllegalStateException("id " + i + " taken " + seen[i] + " times");
+                }
+                String name = linked ? "ConcurrentLinkedDeque" : "IntWorkStealingDeque";
+                System.out.printf("%-24s %d threads %8.1f ms %8.2f Mops/s %9d stolen\n", name, threads, ms, ids / ms / 1e3, stolen.get());
+            }
+        }
+    }
+
+    private static int orNone(Integer x) {
+        return x == null ? -1 : x;
+    }
+
+    private static void take(byte[] seen, int x) {
+        if (seen[x]++ != 0) throw new IllegalStateException("id " + x + " taken twice");
+    }
+}
@@ -0,0 +1,330 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+/**
+ * Depth-first search of a {@link Digraph} or an {@link EdgeWeightedDigraph}
+ * without recursion.
+ * <p>
+ * The graph is copied once into flat adjacency arrays, in the order of
+ * G.adj(v). The call stack of the recursive search becomes an int array of
+ * vertices plus, for each vertex, the position of the next edge to try, so
+ * a search uses O(V) primitive arrays whatever the depth, and vertices and
+ * edges are visited in exactly the order the recursive version visits them.
+ * On that engine sit directed cycle detection, depth-first orders (with the
+ * topological order of a DAG) and Tarjan's strongly connected components,
+ * each run the first time it is asked for.
+ */
+public class IterativeDFS {
+    private final int V;
+    private final int[] offsets; // out-edges of v are offsets[v]..offsets[v+1]
+    private final int[] targets;
+    private final DirectedEdge[] edges; // null for a Digraph
+
+    private int[] stack;
+    private int[] cursor;
+
+    private boolean cycleDone;
+    private int[] cycleVertices;
+    private Stack<DirectedEdge> cycle;
+
+    private int[] post;
+    private int[] pre;
+
+    private int[] id;
+    private int count = -1;
+
+    public IterativeDFS(Digraph G) {
+        V = G.V();
+        offsets = new int[V + 1];
+        for (int v = 0; v < V; v++) offsets[v + 1] = offsets[v] + G.outdegree(v);
+        targets = new int[offsets[V]];
+        for (int v = 0, i = 0; v < V; v++) {
+            for (int w : G.adj(v)) targets[i++] = w;
+        }
+        edges = null;
+    }
+
+    public IterativeDFS(EdgeWeightedDigraph G) {
+        V = G.V();
+        offsets = new int[V + 1];
+        for (int v = 0; v < V; v++) offsets[v + 1] = offsets[v] + G.outdegree(v);
+        targets = new int[offsets[V]];
+        edges = new DirectedEdge[offsets[V]];
+        for (int v = 0, i = 0; v < V; v++) {
+            for (DirectedEdge e : G.adj(v)) {
+                edges[i] = e;
+                targets[i++] = e.to();
+            }
+        }
+    }
+
+    public int V() {
+        return V;
+    }
+
+    // the explicit call stack, shared by the searches
+    private void frames() {
+        if (stack == null) {
+            stack = new int[V];
+            cursor = new int[V];
+        }
+    }
+
+    /* cycle */
+
+    // stops at the first edge into a vertex still on the stack, as EWDCycle did
+    private void findCycle() {
+        if (cycleDone) return;
+        cycleDone = true;
+        frames();
+        boolean[] marked = new boolean[V];
+        boolean[] onStack = new boolean[V];
+        int[] edgeTo = new int[V];
+        for (int s = 0; s < V; s++) {
+            if (marked[s]) continue;
+            int top = 0;
+            stack[0] = s;
+            cursor[s] = offsets[s];
+            marked[s] = true;
+            onStack[s] = true;
+            while (top >= 0) {
+                int v = stack[top];
+                if (cursor[v] == offsets[v + 1]) {
+                    onStack[v] = false;
+                    top--;
+                    continue;
+                }
+                int i = cursor[v]++;
+                int w = targets[i];
+                if (!marked[w]) {
+                    edgeTo[w] = i;
+                    marked[w] = true;
+                    onStack[w] = true;
+                    cursor[w] = offsets[w];
+                    stack[++top] = w;
+                } else if (onStack[w]) {
+                    closeCycle(i, w, top, edgeTo);
+                    return;
+                }
+            }
+        }
+    }
+
+    // edge i from the top of the stack to w closes a cycle with the stack from w up
+    private void closeCycle(int i, int w, int top, int[] edgeTo) {
+        int bottom = top;
+        while (stack[bottom] != w) bottom--;
+        cycleVertices = new int[top - bottom + 2];
+        for (int k = bottom; k <= top; k++) cycleVertices[k - bottom] = stack[k];
+        cycleVertices[top - bottom + 1] = w;
+        if (edges != null) {
+            cycle = new Stack<>();
+            cycle.push(edges[i]);
+            for (int k = top; k > bottom; k--) cycle.push(edges[edgeTo[stack[k]]]);
+        }
+    }
+
+    public boolean hasCycle() {
+        findCycle();
+        return cycleVertices != null;
+    }
+
+    /**
+     * Vertices of a directed cycle, starting and ending at the same vertex,
+     * or null if the graph is acyclic.
+     */
+    public Iterable<Integer> cycle() {
+        findCycle();
+        if (cycleVertices == null) return null;
+        Queue<Integer> vertices = new Queue<>();
+        for (int v : cycleVertices) vertices.enqueue(v);
+        return vertices;
+    }
+
+    /**
+     * Edges of the directed cycle, in order, or null if the graph is acyclic
+     * or has no edge objects (a Digraph). The same cycle EWDCycle reports.
+     */
+    public Iterable<DirectedEdge> edgeCycle() {
+        findCycle();
+        return cycle;
+    }
+
+    /* depth-first orders */
+
+    private void orders() {
+        if (post != null) return;
+        frames();
+        boolean[] marked = new boolean[V];
+        pre = new int[V];
+        post = new int[V];
+        int preCount = 0;
+        int postCount = 0;
+        for (int s = 0; s < V; s++) {
+            if (marked[s]) continue;
+            int top = 0;
+            stack[0] = s;
+            cursor[s] = offsets[s];
+            marked[s] = true;
+            pre[preCount++] = s;
+            while (top >= 0) {
+                int v = stack[top];
+                if (cursor[v] == offsets[v + 1]) {
+                    post[postCount++] = v;
+                    top--;
+                    continue;
+                }
+                int w = targets[cursor[v]++];
+                if (!marked[w]) {
+                    marked[w] = true;
+                    pre[preCount++] = w;
+                    cursor[w] = offsets[w];
+                    stack[++top] = w;
+                }
+            }
+        }
+    }
+
+    public Iterable<Integer> pre() {
+        orders();
+        Queue<Integer> order = new Queue<>();
+        for (int v : pre) order.enqueue(v);
+        return order;
+    }
+
+    public Iterable<Integer> post() {
+        orders();
+        Queue<Integer> order = new Queue<>();
+        for (int v : post) order.enqueue(v);
+        return order;
+    }
+
+    public Iterable<Integer> reversePost() {
+        orders();
+        Stack<Integer> order = new Stack<>();
+        for (int v : post) order.push(v);
+        return order;
+    }
+
+    /**
+     * Reverse postorder, which is a topological order, or null if the graph
+     * has a cycle.
+     */
+    public Iterable<Integer> topologicalOrder() {
+        if (hasCycle()) return null;
+        return reversePost();
+    }
+
+    public boolean isDAG() {
+        return !hasCycle();
+    }
+
+    /* strongly connected components */
+
+    // Tarjan's algorithm; ids come out in reverse topological order of the components
+    private void tarjan() {
+        if (count >= 0) return;
+        frames();
+        boolean[] marked = new boolean[V];
+        id = new int[V];
+        int[] preorder = new int[V];
+        int[] low = new int[V];
+        int[] component = new int[V]; // Tarjan's stack of vertices not yet in a component
+        int size = 0;
+        int preCount = 0;
+        count = 0;
+        for (int s = 0; s < V; s++) {
+            if (marked[s]) continue;
+            int top = 0;
+            stack[0] = s;
+            cursor[s] = offsets[s];
+            marked[s] = true;
+            preorder[s] = low[s] = preCount++;
+            component[size++] = s;
+            while (top >= 0) {
+                int v = stack[top];
+                if (cursor[v] < offsets[v + 1]) {
+                    int w = targets[cursor[v]++];
+                    if (!marked[w]) {
+                        marked[w] = true;
+                        preorder[w] = low[w] = preCount++;
+                        component[size++] = w;
+                        cursor[w] = offsets[w];
+                        stack[++top] = w;
+                    } else if (low[w] < low[v]) {
+                        low[v] = low[w];
+                    }
+                    continue;
+                }
+                // v is done; it roots a component unless something below it reached above it
+                top--;
+                if (low[v] == preorder[v]) {
+                    int w;
+                    do {
+                        w = component[--size];
+                        id[w] = count;
+                        low[w] = V;
+                    } while (w != v);
+                    count++;
+                }
+                if (top >= 0 && low[v] < low[stack[top]]) low[stack[top]] = low[v];
+            }
+        }
+    }
+
+    public int count() {
+        tarjan();
+        return count;
+    }
+
+    /**
+     * Component of v; components are numbered in reverse topological order
+     * of the condensation, as in Tarjan's algorithm.
+     */
+    public int id(int v) {
+        validateVertex(v);
+        tarjan();
+        return id[v];
+    }
+
+    public boolean stronglyConnected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        tarjan();
+        return id[v] == id[w];
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            Digraph G = new Digraph(in);
+            IterativeDFS dfs = new IterativeDFS(G);
+            if (dfs.hasCycle()) {
+                System.out.print("Directed cycle: ");
+                for (int v : dfs.cycle()) System.out.print(v + " ");
+                System.out.println();
+            } else {
+                System.out.print("Topological order: ");
+                for (int v : dfs.topologicalOrder()) System.out.print(v + " ");
+                System.out.println();
+            }
+            System.out.println(dfs.count() + " strong components");
+            for (int c = 0; c < dfs.count(); c++) {
+                for (int v = 0; v < G.V(); v++) {
+                    if (dfs.id(v) == c) System.out.print(v + " ");
+                }
+                System.out.println();
+            }
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
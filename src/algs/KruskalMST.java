@@ -8,15 +8,27 @@ public class KruskalMST {
     private final Queue<Edge> mst = new Queue<>();
     private double weight;
 
+    /**
+     * Edges are heapified in one pass and come out by weight, ties in the
+     * order of G.edges().
+     */
     public KruskalMST(EdgeWeightedGraph G) {
-        MinPQ<Edge> pq = new MinPQ<>();
+        Edge[] edges = new Edge[G.E()];
+        double[] weights = new double[G.E()];
+        int[] ids = new int[G.E()];
+        int m = 0;
         for (Edge e : G.edges()) {
-            pq.insert(e);
+            edges[m] = e;
+            weights[m] = e.weight();
+            ids[m] = m;
+            m++;
         }
+        DoubleIntMinPQ pq = new DoubleIntMinPQ(m);
+        pq.insertAll(weights, ids, 0, m);
 
         UnionFind uf = new UnionFind(G.V());
         while (!pq.isEmpty() && mst.size() < G.V() - 1) {
-            Edge e = pq.delMin();
+            Edge e = edges[pq.delMin()];
             int v = e.either();
             int w = e.other(v);
             if (!uf.connected(v, w)) {
@@ -0,0 +1,148 @@
+package algs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Landmark distance tables for ALT lower bounds.
+ * Landmarks are picked by farthest-point selection: each new landmark is the
+ * vertex whose distance from the closest landmark chosen so far is largest
+ * (vertices no landmark reaches come first). For every landmark L and vertex v
+ * the table stores d(L, v) and d(v, L), vertex-major so the bounds for one
+ * vertex sit next to each other.
+ */
+public class Landmarks {
+    private static final int MAGIC = 0x4b4d444c; // "LDMK"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final int V;
+    private final int[] landmarks;
+    private final double[] from;
+    private final double[] to;
+
+    public Landmarks(EdgeWeightedDigraph G, int k) {
+        if (k < 1) throw new IllegalArgumentException("Number of landmarks must be positive");
+        V = G.V();
+        if (k > V) throw new IllegalArgumentException("More landmarks than vertices");
+        landmarks = new int[k];
+        from = new double[k * V];
+        to = new double[k * V];
+        EdgeWeightedDigraph R = G.reverse();
+
+        // start from the vertex farthest from vertex 0
+        DijkstraSP sp = new DijkstraSP(G, 0);
+        int next = 0;
+        for (int v = 0; v < V; v++) {
+            if (sp.hasPathTo(v) && sp.distTo(v) > sp.distTo(next)) next = v;
+        }
+        double[] closest = new double[V];
+        for (int v = 0; v < V; v++) closest[v] = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            DijkstraSP forward = new DijkstraSP(G, next);
+            DijkstraSP backward = new DijkstraSP(R, next);
+            for (int v = 0; v < V; v++) {
+                from[v * k + i] = forward.distTo(v);
+                to[v * k + i] = backward.distTo(v);
+                closest[v] = Math.min(closest[v], forward.distTo(v));
+            }
+            next = -1;
+            for (int v = 0; v < V; v++) {
+                if (closest[v] > 0 && (next == -1 || closest[v] > closest[next])) next = v;
+            }
+            if (next == -1) {
+                // every vertex is at distance 0 from a landmark; take any unused one
+                for (int v = 0; next == -1 && v < V; v++) {
+                    if (!contains(landmarks, i + 1, v)) next = v;
+                }
+            }
+        }
+    }
+
+    private Landmarks(int V, int[] landmarks, double[] from, double[] to) {
+        this.V = V;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    private static boolean contains(int[] a, int n, int x) {
+        for (int i = 0; i < n; i++) if (a[i] == x) return true;
+        return false;
+    }
+
+    public int V() {
+        return V;
+    }
+
+    public int size() {
+        return landmarks.length;
+    }
+
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    /**
+     * Lower bound on d(v, t) from the triangle inequality:
+     * d(L, t) - d(L, v) and d(v, L) - d(t, L) for every landmark L. Returns
+     * infinity when some landmark proves t is unreachable from v.
+     */
+    public double lowerBound(int v, int t) {
+        int k = landmarks.length;
+        double bound = 0.0;
+        int vi = v * k, ti = t * k;
+        for (int i = 0; i < k; i++) {
+            double lv = from[vi + i], lt = from[ti + i];
+            if (lv < Double.POSITIVE_INFINITY && lt - lv > bound) bound = lt - lv;
+            double vl = to[vi + i], tl = to[ti + i];
+            if (tl < Double.POSITIVE_INFINITY && vl - tl > bound) bound = vl - tl;
+        }
+        return bound;
+    }
+
+    public void save(Path file) throws IOException {
+        int k = landmarks.length;
+        long bytes = HEADER_BYTES + Integer.BYTES * (long) k + 2L * Double.BYTES * k * V;
+        if (bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Landmark tables are too large to save");
+        ByteBuffer buf = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(V).putInt(k);
+        for (int x : landmarks) buf.putInt(x);
+        buf.asDoubleBuffer().put(from).put(to);
+        buf.position(buf.capacity());
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    /**
+     * Maps a file written by {@link #save} and copies the tables out with bulk reads.
+     */
+    public static Landmarks load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) throw new IllegalArgumentException("File " + file + " is not a landmark file");
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != MAGIC) throw new IllegalArgumentException("File " + file + " is not a landmark file");
+            int version = buf.getInt();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported landmark file version " + version);
+            int V = buf.getInt();
+            int k = buf.getInt();
+            if (V < 0 || k < 1 || ch.size() != HEADER_BYTES + Integer.BYTES * (long) k + 2L * Double.BYTES * k * V)
+                throw new IllegalArgumentException("Landmark file " + file + " is corrupt");
+            int[] landmarks = new int[k];
+            buf.asIntBuffer().get(landmarks);
+            buf.position(buf.position() + Integer.BYTES * k);
+            double[] from = new double[k * V];
+            double[] to = new double[k * V];
+            buf.asDoubleBuffer().get(from).get(to);
+            return new Landmarks(V, landmarks, from, to);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package algs;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -11,37 +12,64 @@ import java.util.Scanner;
 public class LazyPrimMST {
     private boolean[] marked;
     private Queue<Edge> mst;
-    private MinPQ<Edge> pq;
+    private DoubleIntMinPQ pq;
     private double weight;
+    private Edge[] edges;
+    private int[] offsets; // incident edge ids of v are ids[offsets[v]..offsets[v+1])
+    private int[] ids;
 
     public LazyPrimMST(EdgeWeightedGraph G) {
-        pq = new MinPQ<>();
+        index(G);
+        pq = new DoubleIntMinPQ();
         mst = new Queue<>();
         marked = new boolean[G.V()];
         for (int v = 0; v < G.V(); v++)
-            if (!marked[v]) prim(G, v);
+            if (!marked[v]) prim(v);
     }
 
-    private void prim(EdgeWeightedGraph G, int s) {
-        scan(G, s);
+    // numbers the edges in the order of G.edges() and lists the ids incident to each vertex
+    private void index(EdgeWeightedGraph G) {
+        int V = G.V();
+        edges = new Edge[G.E()];
+        int m = 0;
+        for (Edge e : G.edges()) edges[m++] = e;
+        offsets = new int[V + 1];
+        for (int i = 0; i < m; i++) {
+            int v = edges[i].either();
+            offsets[v + 1]++;
+            if (edges[i].other(v) != v) offsets[edges[i].other(v) + 1]++;
+        }
+        for (int v = 0; v < V; v++) offsets[v + 1] += offsets[v];
+        ids = new int[offsets[V]];
+        int[] next = Arrays.copyOf(offsets, V);
+        for (int i = 0; i < m; i++) {
+            int v = edges[i].either();
+            ids[next[v]++] = i;
+            if (edges[i].other(v) != v) ids[next[edges[i].other(v)]++] = i;
+        }
+    }
+
+    private void prim(int s) {
+        scan(s);
         while (!pq.isEmpty()) {
-            Edge e = pq.delMin();
+            Edge e = edges[pq.delMin()];
             int v = e.either();
             int w = e.other(v);
             assert marked[v] || marked[w];
             if (marked[v] && marked[w]) continue;
             mst.enqueue(e);
             weight += e.weight();
-            if (!marked[v]) scan(G, v);
-            if (!marked[w]) scan(G, w);
+            if (!marked[v]) scan(v);
+            if (!marked[w]) scan(w);
         }
     }
 
-    private void scan(EdgeWeightedGraph G, int v) {
+    private void scan(int v) {
         assert !marked[v];
         marked[v] = true;
-        for (Edge e : G.adj(v)) {
-            if (!marked[e.other(v)]) pq.insert(e);
+        for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+            Edge e = edges[ids[k]];
+            if (!marked[e.other(v)]) pq.insert(e.weight(), ids[k]);
         }
     }
 
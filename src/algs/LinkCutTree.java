@@ -0,0 +1,215 @@
+package algs;
+
+import java.util.Arrays;
+
+/**
+ * Link-cut trees (Sleator and Tarjan) over nodes 0 to n-1, each holding a
+ * value, with path maximum queries.
+ * <p>
+ * Every preferred path is a splay tree keyed by depth, and makeRoot reverses
+ * a path lazily, so link, cut, connected and pathMax all take amortized
+ * O(log n). The node count can grow with {@link #addNode(double)}.
+ */
+public class LinkCutTree {
+    private int n;
+    private int[] left;
+    private int[] right;
+    private int[] parent; // splay parent, or path parent for the root of a splay tree
+    private boolean[] flip;
+    private double[] value;
+    private int[] max; // node with the largest value in the splay subtree
+    private int[] stack;
+
+    public LinkCutTree(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        int capacity = Math.max(n, 1);
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        flip = new boolean[capacity];
+        value = new double[capacity];
+        max = new int[capacity];
+        stack = new int[capacity];
+        for (int x = 0; x < n; x++) addNode(Double.NEGATIVE_INFINITY);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Adds a node on its own with the given value and returns its index.
+     */
+    public int addNode(double value) {
+        if (n == left.length) {
+            int capacity = 2 * n;
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            flip = Arrays.copyOf(flip, capacity);
+            this.value = Arrays.copyOf(this.value, capacity);
+            max = Arrays.copyOf(max, capacity);
+            stack = new int[capacity];
+        }
+        int x = n++;
+        left[x] = right[x] = parent[x] = -1;
+        flip[x] = false;
+        this.value[x] = value;
+        max[x] = x;
+        return x;
+    }
+
+    public double value(int x) {
+        validateNode(x);
+        return value[x];
+    }
+
+    /**
+     * Changes the value of x.
+     */
+    public void setValue(int x, double value) {
+        validateNode(x);
+        access(x);
+        this.value[x] = value;
+        pull(x);
+    }
+
+    public boolean connected(int x, int y) {
+        validateNode(x);
+        validateNode(y);
+        return x == y || findRoot(x) == findRoot(y);
+    }
+
+    /**
+     * Joins the trees of x and y with the edge x-y.
+     */
+    public void link(int x, int y) {
+        if (connected(x, y)) throw new IllegalArgumentException("nodes " + x + " and " + y + " are already connected");
+        makeRoot(x);
+        parent[x] = y;
+    }
+
+    /**
+     * Removes the tree edge x-y.
+     */
+    public void cut(int x, int y) {
+        validateNode(x);
+        validateNode(y);
+        makeRoot(x);
+        access(y);
+        // x is now the only node shallower than y on the path
+        if (left[y] == x) push(x);
+        if (left[y] != x || right[x] != -1) throw new IllegalArgumentException("no edge between " + x + " and " + y);
+        left[y] = -1;
+        parent[x] = -1;
+        pull(y);
+    }
+
+    /**
+     * Returns the node with the largest value on the tree path from x to y.
+     */
+    public int pathMax(int x, int y) {
+        if (!connected(x, y)) throw new IllegalArgumentException("nodes " + x + " and " + y + " are not connected");
+        makeRoot(x);
+        access(y);
+        return max[y];
+    }
+
+    private boolean isSplayRoot(int x) {
+        int p = parent[x];
+        return p == -1 || (left[p] != x && right[p] != x);
+    }
+
+    private void pull(int x) {
+        int m = x;
+        if (left[x] != -1 && value[max[left[x]]] > value[m]) m = max[left[x]];
+        if (right[x] != -1 && value[max[right[x]]] > value[m]) m = max[right[x]];
+        max[x] = m;
+    }
+
+    private void push(int x) {
+        if (!flip[x]) return;
+        int t = left[x];
+        left[x] = right[x];
+        right[x] = t;
+        if (left[x] != -1) flip[left[x]] ^= true;
+        if (right[x] != -1) flip[right[x]] ^= true;
+        flip[x] = false;
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        if (!isSplayRoot(p)) {
+            if (left[g] == p) left[g] = x;
+            else right[g] = x;
+        }
+        parent[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != -1) parent[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != -1) parent[left[x]] = p;
+            left[x] = p;
+        }
+        parent[p] = x;
+        pull(p);
+        pull(x);
+    }
+
+    private void splay(int x) {
+        // push pending flips from the splay root down to x first
+        int depth = 0;
+        for (int y = x; ; y = parent[y]) {
+            stack[depth++] = y;
+            if (isSplayRoot(y)) break;
+        }
+        while (depth > 0) push(stack[--depth]);
+
+        while (!isSplayRoot(x)) {
+            int p = parent[x];
+            if (!isSplayRoot(p)) {
+                int g = parent[p];
+                boolean zigzig = (left[g] == p) == (left[p] == x);
+                rotate(zigzig ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    // makes the path from the root to x preferred, with x at the root of its splay tree
+    private void access(int x) {
+        int last = -1;
+        for (int y = x; y != -1; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            pull(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        flip[x] ^= true;
+        push(x);
+    }
+
+    private int findRoot(int x) {
+        access(x);
+        int r = x;
+        push(r);
+        while (left[r] != -1) {
+            r = left[r];
+            push(r);
+        }
+        splay(r);
+        return r;
+    }
+
+    private void validateNode(int x) {
+        if (x < 0 || x >= n) throw new IllegalArgumentException("node " + x + " is not between 0 and " + (n - 1));
+    }
+}
@@ -0,0 +1,142 @@
+package algs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min priority queue of primitive long keys using a d-ary heap.
+ * Callers that need a payload pack it into the low bits of the key. The queue
+ * can be loaded in bulk with a linear-time heapify and drained destructively
+ * into sorted order inside its own array.
+ */
+public class LongMinPQ {
+    private final int d;
+    private long[] pq;
+    private int n;
+    private int sorted; // number of keys left in sorted order by drainSorted
+
+    public LongMinPQ() {
+        this(16, 4);
+    }
+
+    public LongMinPQ(int capacity) {
+        this(capacity, 4);
+    }
+
+    public LongMinPQ(int capacity, int d) {
+        if (capacity < 0) throw new IllegalArgumentException();
+        if (d < 2) throw new IllegalArgumentException("Arity must be at least 2");
+        this.d = d;
+        pq = new long[Math.max(capacity, 1)];
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public int arity() {
+        return d;
+    }
+
+    public void insert(long key) {
+        sorted = 0;
+        if (n == pq.length) pq = Arrays.copyOf(pq, 2 * n);
+        swim(n++, key);
+    }
+
+    /**
+     * Inserts keys[from..to). When the batch is at least as large as the queue
+     * the whole heap is rebuilt bottom-up in linear time.
+     */
+    public void insertAll(long[] keys, int from, int to) {
+        if (from < 0 || to > keys.length || from > to) throw new IllegalArgumentException();
+        sorted = 0;
+        int count = to - from;
+        if (n + count > pq.length) pq = Arrays.copyOf(pq, Math.max(n + count, 2 * pq.length));
+        if (count < n) {
+            for (int i = from; i < to; i++) swim(n++, keys[i]);
+            return;
+        }
+        System.arraycopy(keys, from, pq, n, count);
+        n += count;
+        for (int k = (n - 2) / d; k >= 0; k--) sink(k, pq[k]);
+    }
+
+    public long min() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[0];
+    }
+
+    public long delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        long min = pq[0];
+        n--;
+        if (n > 0) sink(0, pq[n]);
+        return min;
+    }
+
+    /**
+     * Empties the queue by heapsort inside its own array and returns the number
+     * of keys, which are then available in ascending order through
+     * {@link #sorted(int)} until the next insertion.
+     */
+    public int drainSorted() {
+        int count = n;
+        while (n > 1) {
+            long last = pq[n - 1];
+            pq[n - 1] = pq[0];
+            n--;
+            sink(0, last);
+        }
+        n = 0;
+        // the min-heap sort leaves the keys descending
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            long t = pq[i];
+            pq[i] = pq[j];
+            pq[j] = t;
+        }
+        sorted = count;
+        return count;
+    }
+
+    /**
+     * Returns the i-th smallest key of the last drainSorted.
+     */
+    public long sorted(int i) {
+        if (i < 0 || i >= sorted) throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (sorted - 1));
+        return pq[i];
+    }
+
+    // moves the hole at k up until key fits
+    private void swim(int k, long key) {
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            if (pq[parent] <= key) break;
+            pq[k] = pq[parent];
+            k = parent;
+        }
+        pq[k] = key;
+    }
+
+    // moves the hole at k down until key fits
+    private void sink(int k, long key) {
+        while (true) {
+            long child = (long) d * k + 1;
+            if (child >= n) break;
+            int first = (int) child;
+            int last = (int) Math.min(child + d, n);
+            int min = first;
+            for (int j = first + 1; j < last; j++) {
+                if (pq[j] < pq[min]) min = j;
+            }
+            if (pq[min] >= key) break;
+            pq[k] = pq[min];
+            k = min;
+        }
+        pq[k] = key;
+    }
+}
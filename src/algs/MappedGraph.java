@@ -0,0 +1,197 @@
+package algs;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Read-only view of a graph file mapped by {@link GraphFile#open}.
+ * Adjacency data is read straight from the mapping; nothing is copied until one
+ * of the conversion methods is called. {@link CompactDijkstraSP} searches a
+ * mapped weighted digraph in place.
+ */
+public class MappedGraph {
+    private final int flags;
+    private final int V;
+    private final int E;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+
+    MappedGraph(int flags, int V, int E, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights) {
+        this.flags = flags;
+        this.V = V;
+        this.E = E;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int V() {
+        return V;
+    }
+
+    public int E() {
+        return E;
+    }
+
+    public boolean isDirected() {
+        return (flags & GraphFile.DIRECTED) != 0;
+    }
+
+    public boolean isWeighted() {
+        return (flags & GraphFile.WEIGHTED) != 0;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    /**
+     * Index of the first adjacency entry of v.
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets.get(v);
+    }
+
+    /**
+     * One past the index of the last adjacency entry of v.
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets.get(v + 1);
+    }
+
+    public int degree(int v) {
+        return end(v) - begin(v);
+    }
+
+    /**
+     * The vertex whose adjacency entries include entry i.
+     */
+    public int from(int i) {
+        validateEntry(i);
+        int lo = 0, hi = V - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets.get(mid) <= i) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    public int to(int i) {
+        return targets.get(i);
+    }
+
+    public double weight(int i) {
+        if (weights == null) throw new UnsupportedOperationException("Graph is not weighted");
+        return weights.get(i);
+    }
+
+    public DirectedEdge edge(int i) {
+        return new DirectedEdge(from(i), to(i), weight(i));
+    }
+
+    private void validateEntry(int i) {
+        if (i < 0 || i >= targets.capacity())
+            throw new IllegalArgumentException("entry " + i + " is not between 0 and " + (targets.capacity() - 1));
+    }
+
+    // the mapped buffers, for the search loops in this package that read them in place
+
+    IntBuffer offsets() {
+        return offsets;
+    }
+
+    IntBuffer targets() {
+        return targets;
+    }
+
+    DoubleBuffer weights() {
+        return weights;
+    }
+
+    void requireKind(int kind) {
+        if (flags != kind) throw new UnsupportedOperationException("Graph file holds a different kind of graph");
+    }
+
+    public Graph toGraph() {
+        requireKind(0);
+        Graph G = new Graph(V);
+        for (int v = 0; v < V; v++) {
+            int selfLoops = 0;
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++) {
+                int w = targets.get(i);
+                if (w > v) G.addEdge(v, w);
+                else if (w == v && selfLoops++ % 2 == 0) G.addEdge(v, w);
+            }
+        }
+        return G;
+    }
+
+    public Digraph toDigraph() {
+        requireKind(GraphFile.DIRECTED);
+        Digraph G = new Digraph(V);
+        for (int v = 0; v < V; v++) {
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++) {
+                G.addEdge(v, targets.get(i));
+            }
+        }
+        return G;
+    }
+
+    public EdgeWeightedGraph toEdgeWeightedGraph() {
+        requireKind(GraphFile.WEIGHTED);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int v = 0; v < V; v++) {
+            int selfLoops = 0;
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++) {
+                int w = targets.get(i);
+                if (w > v) G.addEdge(new Edge(v, w, weights.get(i)));
+                else if (w == v && selfLoops++ % 2 == 0) G.addEdge(new Edge(v, w, weights.get(i)));
+            }
+        }
+        return G;
+    }
+
+    public EdgeWeightedDigraph toEdgeWeightedDigraph() {
+        requireKind(GraphFile.DIRECTED | GraphFile.WEIGHTED);
+        EdgeWeightedDigraph G = new EdgeWeightedDigraph(V);
+        for (int v = 0; v < V; v++) {
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++) {
+                G.addEdge(new DirectedEdge(v, targets.get(i), weights.get(i)));
+            }
+        }
+        return G;
+    }
+
+    /**
+     * Copies the mapped arrays of a weighted digraph into memory with bulk reads.
+     */
+    public CompactEdgeWeightedDigraph toCompactEdgeWeightedDigraph() {
+        requireKind(GraphFile.DIRECTED | GraphFile.WEIGHTED);
+        int[] o = new int[V + 1];
+        int[] t = new int[targets.capacity()];
+        double[] w = new double[weights.capacity()];
+        offsets.get(0, o);
+        targets.get(0, t);
+        weights.get(0, w);
+        return new CompactEdgeWeightedDigraph(V, o, t, w);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(String.format("%d vertices, %d edges\n", V, E));
+        for (int v = 0; v < V; v++) {
+            s.append(String.format("%d: ", v));
+            for (int i = offsets.get(v); i < offsets.get(v + 1); i++) {
+                if (isWeighted()) s.append(String.format("%d %5.2f", targets.get(i), weights.get(i))).append(" ");
+                else s.append(targets.get(i)).append(" ");
+            }
+            s.append("\n");
+        }
+        return s.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package algs;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -27,6 +28,12 @@ public class MinPQ<K extends Comparable<K>> implements Iterable<K> {
         assert isMinHeap();
     }
 
+    // copy of other sharing no state, for iteration
+    private MinPQ(MinPQ<K> other) {
+        pq = Arrays.copyOf(other.pq, other.size + 1);
+        size = other.size;
+    }
+
     public int size() {
         return size;
     }
@@ -39,7 +46,6 @@ public class MinPQ<K extends Comparable<K>> implements Iterable<K> {
         if (size == pq.length - 1) grow(2 * pq.length);
         pq[++size] = k;
         swim(size);
-        assert isMinHeap();
     }
 
     public K delMin() {
@@ -48,7 +54,6 @@ public class MinPQ<K extends Comparable<K>> implements Iterable<K> {
         swap(1, size--);
         sink(1);
         pq[size + 1] = null;
-        assert isMinHeap();
         return min;
     }
 
@@ -107,10 +112,7 @@ public class MinPQ<K extends Comparable<K>> implements Iterable<K> {
         private final MinPQ<K> copy;
 
         public HeapIterator() {
-            copy = new MinPQ<>(size);
-            for (int i = 1; i <= size; i++) {
-                copy.insert(pq[i]);
-            }
+            copy = new MinPQ<>(MinPQ.this);
         }
 
         public boolean hasNext() {
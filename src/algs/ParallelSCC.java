@@ -0,0 +1,557 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Strong components of a {@link Digraph} on a fork-join pool, by trimming
+ * followed by forward-backward decomposition (Fleischer, Hendrickson and
+ * Pinar; McLendon et al.).
+ * <p>
+ * The digraph is copied into flat out-edge arrays and flat in-edge arrays of
+ * its transpose. Trimming first removes, in parallel rounds, every vertex
+ * with no live in-edges or no live out-edges: each is a component by itself,
+ * and removing it can expose its neighbours, which become the candidates of
+ * the next round. The remaining vertices form one subproblem. A subproblem
+ * picks a pivot and colors the vertices it reaches forward and the vertices
+ * reaching it backward, each search a level-synchronous parallel BFS that
+ * stays inside the subproblem. Vertices found both ways form the pivot's
+ * component. The forward-only, backward-only and unreached vertices can share
+ * no component, so they become three subproblems: the task goes on with the
+ * largest in a loop and forks the other two, so nesting stays logarithmic.
+ * A subproblem below a few thousand vertices is finished by an iterative
+ * Tarjan search, and so is every subproblem split off after two pivots on
+ * its way down landed in components of under 1/64 of what they split: with
+ * many small components, each split would peel off little more than one of
+ * them for a scan of the whole subproblem.
+ * <p>
+ * Components are numbered by their smallest vertex, so ids do not depend on
+ * thread timing.
+ */
+public class ParallelSCC {
+    private static final int GRAIN = 1024;
+    private static final int SEQUENTIAL = 1 << 12;
+    private static final int CHUNK = 64;
+    private static final int PEEL = 64; // a split peeling off less than 1/PEEL of its subproblem is a miss
+    private static final int MISSES = 2;
+    private static final int LIVE = 0;
+    private static final int DEAD = -1;
+
+    private final int V;
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] inOffsets;
+    private final int[] inTargets;
+    private final ForkJoinPool pool;
+
+    private final AtomicIntegerArray color; // subproblem of each live vertex, DEAD once in a component
+    private final AtomicInteger colors = new AtomicInteger();
+    private final int[] leader; // a vertex of each vertex's component
+    private final int[] preorder; // scratch for the sequential searches, each vertex used by one
+    private final int[] low;
+    private final int[] cursor;
+
+    private final int[] id;
+    private int count;
+    private final AtomicInteger trimmed = new AtomicInteger();
+    private Digraph condensation;
+
+    public ParallelSCC(Digraph G) {
+        this(G, ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(Digraph G, ForkJoinPool pool) {
+        V = G.V();
+        this.pool = pool;
+        outOffsets = new int[V + 1];
+        inOffsets = new int[V + 1];
+        for (int v = 0; v < V; v++) {
+            outOffsets[v + 1] = outOffsets[v] + G.outdegree(v);
+            inOffsets[v + 1] = inOffsets[v] + G.indegree(v);
+        }
+        outTargets = new int[outOffsets[V]];
+        inTargets = new int[inOffsets[V]];
+        // the transpose is filled alongside, so G.reverse() is never built as lists
+        int[] position = new int[V];
+        System.arraycopy(inOffsets, 0, position, 0, V);
+        for (int v = 0, i = 0; v < V; v++) {
+            for (int w : G.adj(v)) {
+                outTargets[i++] = w;
+                inTargets[position[w]++] = v;
+            }
+        }
+
+        color = new AtomicIntegerArray(V);
+        leader = new int[V];
+        preorder = new int[V];
+        low = new int[V];
+        cursor = new int[V];
+        trim();
+        int live = 0;
+        for (int v = 0; v < V; v++) {
+            if (color.get(v) == LIVE) live++;
+        }
+        int[] members = new int[live];
+        for (int v = 0, k = 0; v < V; v++) {
+            if (color.get(v) == LIVE) members[k++] = v;
+        }
+        if (live > 0) pool.invoke(new Solve(LIVE, members, 0));
+
+        id = new int[V];
+        int[] idOf = position; // reused: id of the component led by each vertex
+        Arrays.fill(idOf, -1);
+        for (int v = 0; v < V; v++) {
+            int l = leader[v];
+            if (idOf[l] == -1) idOf[l] = count++;
+            id[v] = idOf[l];
+        }
+    }
+
+    /* trimming */
+
+    private void trim() {
+        AtomicIntegerArray in = new AtomicIntegerArray(V);
+        AtomicIntegerArray out = new AtomicIntegerArray(V);
+        AtomicIntegerArray queued = new AtomicIntegerArray(V); // round that last queued each vertex
+        for (int v = 0; v < V; v++) {
+            in.set(v, inOffsets[v + 1] - inOffsets[v]);
+            out.set(v, outOffsets[v + 1] - outOffsets[v]);
+        }
+        int[] candidates = new int[V];
+        for (int v = 0; v < V; v++) candidates[v] = v;
+        ConcurrentIntQueue next = new ConcurrentIntQueue(Math.max(V, 1));
+        int n = V;
+        for (int round = 1; n > 0; round++) {
+            pool.invoke(new Trim(candidates, 0, n, round, in, out, queued, next));
+            n = next.drainTo(candidates, 0, V);
+        }
+    }
+
+    private class Trim extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] candidates;
+        private final int lo;
+        private final int hi;
+        private final int round;
+        private final AtomicIntegerArray in;
+        private final AtomicIntegerArray out;
+        private final AtomicIntegerArray queued;
+        private final ConcurrentIntQueue next;
+
+        Trim(int[] candidates, int lo, int hi, int round, AtomicIntegerArray in, AtomicIntegerArray out,
+             AtomicIntegerArray queued, ConcurrentIntQueue next) {
+            this.candidates = candidates;
+            this.lo = lo;
+            this.hi = hi;
+            this.round = round;
+            this.in = in;
+            this.out = out;
+            this.queued = queued;
+            this.next = next;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Trim(candidates, lo, mid, round, in, out, queued, next),
+                        new Trim(candidates, mid, hi, round, in, out, queued, next));
+                return;
+            }
+            int[] buffer = new int[CHUNK];
+            int size = 0;
+            int removed = 0;
+            for (int k = lo; k < hi; k++) {
+                int v = candidates[k];
+                if (in.get(v) != 0 && out.get(v) != 0) continue;
+                if (!color.compareAndSet(v, LIVE, DEAD)) continue;
+                leader[v] = v;
+                removed++;
+                for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                    int w = outTargets[i];
+                    if (in.decrementAndGet(w) == 0 && queued.getAndSet(w, round) != round) {
+                        if (size == CHUNK) {
+                            next.offerAll(buffer, 0, size);
+                            size = 0;
+                        }
+                        buffer[size++] = w;
+                    }
+                }
+                for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+                    int u = inTargets[i];
+                    if (out.decrementAndGet(u) == 0 && queued.getAndSet(u, round) != round) {
+                        if (size == CHUNK) {
+                            next.offerAll(buffer, 0, size);
+                            size = 0;
+                        }
+                        buffer[size++] = u;
+                    }
+                }
+            }
+            // fits: every vertex is queued at most once per round
+            next.offerAll(buffer, 0, size);
+            if (removed > 0) trimmed.addAndGet(removed);
+        }
+    }
+
+    /* forward-backward decomposition */
+
+    // the vertices of members, all of color c, form one subproblem
+    private class Solve extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private int c;
+        private int[] members;
+        private int misses; // splits so far, here or in the tasks that forked this one, that peeled off little
+        // BFS buffers, reused by every split of this task and grown to the largest level seen
+        private int[] frontier;
+        private ConcurrentIntQueue next;
+
+        Solve(int c, int[] members, int misses) {
+            this.c = c;
+            this.members = members;
+            this.misses = misses;
+        }
+
+        @Override
+        protected void compute() {
+            Stack<Solve> forked = new Stack<>();
+            while (members.length > SEQUENTIAL && misses < MISSES) {
+                int n = members.length;
+                int forward = colors.incrementAndGet();
+                int backward = colors.incrementAndGet();
+                int both = colors.incrementAndGet();
+                int pivot = members[(int) ((forward * 0x9E3779B97F4A7C15L >>> 33) % n)];
+
+                color.set(pivot, forward);
+                reach(pivot, true, forward, backward, both, n);
+                color.set(pivot, both);
+                reach(pivot, false, forward, backward, both, n);
+
+                int forwardCount = 0, backwardCount = 0, restCount = 0;
+                for (int v : members) {
+                    int x = color.get(v);
+                    if (x == forward) forwardCount++;
+                    else if (x == backward) backwardCount++;
+                    else if (x == c) restCount++;
+                }
+                int[] forwardSet = new int[forwardCount];
+                int[] backwardSet = new int[backwardCount];
+                int[] rest = new int[restCount];
+                forwardCount = backwardCount = restCount = 0;
+                for (int v : members) {
+                    int x = color.get(v);
+                    if (x == forward) forwardSet[forwardCount++] = v;
+                    else if (x == backward) backwardSet[backwardCount++] = v;
+                    else if (x == c) rest[restCount++] = v;
+                    else {
+                        leader[v] = pivot;
+                        color.set(v, DEAD);
+                    }
+                }
+
+                // pivots keep landing in small components: splitting further costs a scan per component
+                if (n - forwardSet.length - backwardSet.length - rest.length < n / PEEL) misses++;
+                // keep the largest part and fork the others, so nested tasks at least halve
+                if (forwardSet.length >= backwardSet.length && forwardSet.length >= rest.length) {
+                    fork(forked, backward, backwardSet);
+                    fork(forked, c, rest);
+                    c = forward;
+                    members = forwardSet;
+                } else if (backwardSet.length >= rest.length) {
+                    fork(forked, forward, forwardSet);
+                    fork(forked, c, rest);
+                    c = backward;
+                    members = backwardSet;
+                } else {
+                    fork(forked, forward, forwardSet);
+                    fork(forked, backward, backwardSet);
+                    members = rest;
+                }
+            }
+            tarjan(c, members);
+            members = null;
+            frontier = null;
+            next = null;
+            for (Solve task : forked) task.join();
+        }
+
+        private void fork(Stack<Solve> forked, int c, int[] members) {
+            if (members.length == 0) return;
+            Solve task = new Solve(c, members, misses);
+            task.fork();
+            forked.push(task);
+        }
+
+        // BFS from the pivot inside the subproblem of n vertices, recoloring what it reaches
+        private void reach(int pivot, boolean isForward, int forward, int backward, int both, int n) {
+            if (next == null) {
+                next = new ConcurrentIntQueue(CHUNK);
+                frontier = new int[next.capacity()];
+            }
+            int[] offsets = isForward ? outOffsets : inOffsets;
+            frontier[0] = pivot;
+            int size = 1;
+            while (size > 0) {
+                reserve(size, offsets, n);
+                new Expand(frontier, 0, size, isForward, c, forward, backward, both, next).invoke();
+                size = next.drainTo(frontier, 0, frontier.length);
+            }
+        }
+
+        // makes next hold the level after frontier[0..size): at most the edges leaving it, and at most n
+        private void reserve(int size, int[] offsets, int n) {
+            int capacity = next.capacity();
+            if (capacity >= n) return;
+            long edges = 0;
+            for (int k = 0; k < size; k++) {
+                int v = frontier[k];
+                edges += offsets[v + 1] - offsets[v];
+            }
+            if (edges <= capacity) return;
+            next = new ConcurrentIntQueue((int) Math.min(Math.max(edges, 2L * capacity), n));
+            frontier = Arrays.copyOf(frontier, next.capacity());
+        }
+    }
+
+    // one BFS level: the out-edges (or in-edges) of frontier[lo..hi)
+    private class Expand extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int lo;
+        private final int hi;
+        private final boolean isForward;
+        private final int c;
+        private final int forward;
+        private final int backward;
+        private final int both;
+        private final ConcurrentIntQueue next;
+
+        Expand(int[] frontier, int lo, int hi, boolean isForward, int c, int forward, int backward, int both, ConcurrentIntQueue next) {
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.isForward = isForward;
+            this.c = c;
+            this.forward = forward;
+            this.backward = backward;
+            this.both = both;
+            this.next = next;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Expand(frontier, lo, mid, isForward, c, forward, backward, both, next),
+                        new Expand(frontier, mid, hi, isForward, c, forward, backward, both, next));
+                return;
+            }
+            int[] offsets = isForward ? outOffsets : inOffsets;
+            int[] targets = isForward ? outTargets : inTargets;
+            int[] buffer = new int[CHUNK];
+            int size = 0;
+            for (int k = lo; k < hi; k++) {
+                int v = frontier[k];
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int w = targets[i];
+                    int x = color.get(w);
+                    boolean claimed;
+                    if (isForward) claimed = x == c && color.compareAndSet(w, c, forward);
+                    else if (x == forward) claimed = color.compareAndSet(w, forward, both);
+                    else claimed = x == c && color.compareAndSet(w, c, backward);
+                    if (claimed) {
+                        if (size == CHUNK) {
+                            next.offerAll(buffer, 0, size);
+                            size = 0;
+                        }
+                        buffer[size++] = w;
+                    }
+                }
+            }
+            // fits: reserve made room for every vertex this level can claim
+            next.offerAll(buffer, 0, size);
+        }
+    }
+
+    // Tarjan's algorithm inside a small subproblem, with an explicit stack as in IterativeDFS
+    private void tarjan(int c, int[] members) {
+        int n = members.length;
+        int visiting = colors.incrementAndGet();
+        int[] stack = new int[n];
+        int[] component = new int[n];
+        int size = 0;
+        int preCount = 0;
+        for (int s : members) {
+            if (color.get(s) != c) continue;
+            int top = 0;
+            stack[0] = s;
+            color.set(s, visiting);
+            preorder[s] = low[s] = preCount++;
+            component[size++] = s;
+            cursor[s] = outOffsets[s];
+            while (top >= 0) {
+                int v = stack[top];
+                if (cursor[v] < outOffsets[v + 1]) {
+                    int w = outTargets[cursor[v]++];
+                    int x = color.get(w);
+                    if (x == c) {
+                        color.set(w, visiting);
+                        preorder[w] = low[w] = preCount++;
+                        component[size++] = w;
+                        cursor[w] = outOffsets[w];
+                        stack[++top] = w;
+                    } else if (x == visiting && low[w] < low[v]) {
+                        low[v] = low[w];
+                    }
+                    continue;
+                }
+                top--;
+                if (low[v] == preorder[v]) {
+                    // finished components leave the subproblem, so later edges into them are ignored
+                    int w;
+                    do {
+                        w = component[--size];
+                        leader[w] = v;
+                        color.set(w, DEAD);
+                    } while (w != v);
+                } else if (low[v] < low[stack[top]]) {
+                    low[stack[top]] = low[v];
+                }
+            }
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int id(int v) {
+        validateVertex(v);
+        return id[v];
+    }
+
+    /**
+     * Component id of every vertex.
+     */
+    public int[] ids() {
+        return id.clone();
+    }
+
+    public boolean stronglyConnected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return id[v] == id[w];
+    }
+
+    /**
+     * Number of vertices removed by trimming.
+     */
+    public int trimmed() {
+        return trimmed.get();
+    }
+
+    /**
+     * The DAG with one vertex per component and one edge for each pair of
+     * components joined by at least one edge.
+     */
+    public Digraph condensation() {
+        if (condensation != null) return condensation;
+        // vertices grouped by component
+        int[] start = new int[count + 1];
+        for (int v = 0; v < V; v++) start[id[v] + 1]++;
+        for (int c = 0; c < count; c++) start[c + 1] += start[c];
+        int[] members = new int[V];
+        int[] position = Arrays.copyOf(start, count);
+        for (int v = 0; v < V; v++) members[position[id[v]]++] = v;
+
+        Digraph dag = new Digraph(count);
+        int[] last = position; // reused: last component that added an edge to each component
+        Arrays.fill(last, -1);
+        for (int c = 0; c < count; c++) {
+            for (int k = start[c]; k < start[c + 1]; k++) {
+                int v = members[k];
+                for (int i = outOffsets[v]; i < outOffsets[v + 1]; i++) {
+                    int d = id[outTargets[i]];
+                    if (d != c && last[d] != c) {
+                        last[d] = c;
+                        dag.addEdge(c, d);
+                    }
+                }
+            }
+        }
+        condensation = dag;
+        return dag;
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    /**
+     * Prints the components, then checks them against the sequential Tarjan
+     * search of {@link IterativeDFS} and compares the running times. Then does
+     * the same for 20,000 disjoint 2-cycles, where every split finds one tiny
+     * component.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        try (Scanner in = new Scanner(file)) {
+            Digraph G = new Digraph(in);
+            ParallelSCC scc = check(G, args[0]);
+            if (G.V() <= 100) {
+                System.out.println(scc.count() + " strong components");
+                for (int c = 0; c < scc.count(); c++) {
+                    for (int v = 0; v < G.V(); v++) {
+                        if (scc.id(v) == c) System.out.print(v + " ");
+                    }
+                    System.out.println();
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+
+        int pairs = 20_000;
+        Digraph cycles = new Digraph(2 * pairs);
+        for (int i = 0; i < pairs; i++) {
+            cycles.addEdge(2 * i, 2 * i + 1);
+            cycles.addEdge(2 * i + 1, 2 * i);
+        }
+        ParallelSCC scc = check(cycles, pairs + " disjoint 2-cycles");
+        if (scc.count() != pairs || scc.trimmed() != 0) throw new IllegalStateException("2-cycles were trimmed or split");
+    }
+
+    // same partition as Tarjan, the two numberings mapping onto each other one to one
+    private static ParallelSCC check(Digraph G, String name) {
+        long start = System.nanoTime();
+        ParallelSCC scc = new ParallelSCC(G);
+        double parallel = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        IterativeDFS tarjan = new IterativeDFS(G);
+        int expected = tarjan.count();
+        double sequential = (System.nanoTime() - start) / 1e6;
+
+        if (scc.count() != expected) throw new IllegalStateException(scc.count() + " components, Tarjan finds " + expected);
+        int[] map = new int[expected];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < G.V(); v++) {
+            int c = scc.id(v);
+            if (map[c] == -1) map[c] = tarjan.id(v);
+            else if (map[c] != tarjan.id(v)) throw new IllegalStateException("vertex " + v + " is in a different component");
+        }
+        if (new IterativeDFS(scc.condensation()).hasCycle()) throw new IllegalStateException("condensation has a cycle");
+        System.out.printf("%s: %d components (%d trimmed) match Tarjan; parallel %.1f ms, sequential %.1f ms\n",
+                name, scc.count(), scc.trimmed(), parallel, sequential);
+        return scc;
+    }
+}
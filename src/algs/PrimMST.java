@@ -6,19 +6,26 @@ import java.util.Scanner;
 
 /**
  * Computes a MST in an EWG.
- * Eager implementation of Prim's Algorithm using an indexed min-heap priority queue.
+ * Eager implementation of Prim's Algorithm using an indexed d-ary min-heap priority queue.
  */
 public class PrimMST {
     private Edge[] edgeTo;
     private double[] distTo;
     private boolean[] marked;
-    private IndexMinPQ<Double> pq;
+    private DoubleIndexMinPQ pq;
 
     public PrimMST(EdgeWeightedGraph G) {
+        this(G, 4);
+    }
+
+    /**
+     * Computes the MST using a d-ary heap.
+     */
+    public PrimMST(EdgeWeightedGraph G, int d) {
         edgeTo = new Edge[G.V()];
         distTo = new double[G.V()];
         marked = new boolean[G.V()];
-        pq = new IndexMinPQ<>(G.V());
+        pq = new DoubleIndexMinPQ(G.V(), d);
         for (int v = 0; v < G.V(); v++)
             distTo[v] = Double.POSITIVE_INFINITY;
         for (int v = 0; v < G.V(); v++)
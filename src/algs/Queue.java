@@ -3,19 +3,22 @@ package algs;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+/**
+ * FIFO queue on a growable circular array.
+ * The array doubles when full and halves when a quarter full, so a queue
+ * allocates only on resizes instead of once per element.
+ */
+@SuppressWarnings("unchecked")
 public class Queue<T> implements Iterable<T> {
-    private Node<T> first;
-    private Node<T> last;
-    private int size;
+    private static final int INIT_CAPACITY = 8;
 
-    private static class Node<T> {
-        T data;
-        Node<T> next;
-    }
+    private T[] q;
+    private int first;
+    private int size;
 
     public Queue() {
-        first = null;
-        last = null;
+        q = (T[]) new Object[INIT_CAPACITY];
+        first = 0;
         size = 0;
     }
 
@@ -29,28 +32,34 @@ public class Queue<T> implements Iterable<T> {
 
     public T peek() {
         if (isEmpty()) throw new NoSuchElementException("Queue is empty");
-        return first.data;
+        return q[first];
     }
 
     public void enqueue(T data) {
-        Node<T> oldLast = last;
-        last = new Node<T>();
-        last.data = data;
-        last.next = null;
-        if (isEmpty()) first = last;
-        else oldLast.next = last;
+        if (size == q.length) resize(2 * q.length);
+        q[(first + size) % q.length] = data;
         size++;
     }
 
     public T dequeue() {
         if (isEmpty()) throw new NoSuchElementException("Queue is empty");
-        T data = first.data;
-        first = first.next;
+        T data = q[first];
+        q[first] = null;
+        first = (first + 1) % q.length;
         size--;
-        if (isEmpty()) last = null;
+        if (size > 0 && size == q.length / 4 && q.length > INIT_CAPACITY) resize(q.length / 2);
         return data;
     }
 
+    private void resize(int capacity) {
+        T[] temp = (T[]) new Object[capacity];
+        for (int i = 0; i < size; i++) {
+            temp[i] = q[(first + i) % q.length];
+        }
+        q = temp;
+        first = 0;
+    }
+
     @Override
     public String toString() {
         StringBuilder s = new StringBuilder();
@@ -61,25 +70,19 @@ public class Queue<T> implements Iterable<T> {
     }
 
     public Iterator<T> iterator() {
-        return new LinkedIterator(first);
+        return new ArrayIterator();
     }
 
-    private class LinkedIterator implements Iterator<T> {
-        private Node<T> current;
-
-        public LinkedIterator(Node<T> first) {
-            current = first;
-        }
+    private class ArrayIterator implements Iterator<T> {
+        private int i = 0;
 
         public boolean hasNext() {
-            return current != null;
+            return i < size;
         }
 
         public T next() {
             if (!hasNext()) throw new NoSuchElementException();
-            T data = current.data;
-            current = current.next;
-            return data;
+            return q[(first + i++) % q.length];
         }
     }
 }
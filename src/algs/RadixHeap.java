@@ -0,0 +1,82 @@
+package algs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Monotone priority queue of int values with non-negative long keys.
+ * Keys may never be smaller than the last key removed. Bucket i holds the
+ * entries whose key first differs from that last key in bit i - 1, so each
+ * entry moves down at most 64 times and every operation is O(1) amortized
+ * plus O(log C) for a maximum key difference C.
+ */
+public class RadixHeap {
+    private final long[][] keys = new long[65][];
+    private final int[][] values = new int[65][];
+    private final int[] sizes = new int[65];
+    private long last;
+    private int n;
+
+    public RadixHeap() {
+        for (int b = 0; b < 65; b++) {
+            keys[b] = new long[4];
+            values[b] = new int[4];
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public void insert(int value, long key) {
+        if (key < last) throw new IllegalArgumentException("key " + key + " is smaller than the last minimum " + last);
+        add(bucket(key), value, key);
+        n++;
+    }
+
+    public long minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        pull();
+        return last;
+    }
+
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        pull();
+        n--;
+        return values[0][--sizes[0]];
+    }
+
+    private int bucket(long key) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void add(int b, int value, long key) {
+        if (sizes[b] == keys[b].length) {
+            keys[b] = Arrays.copyOf(keys[b], 2 * sizes[b]);
+            values[b] = Arrays.copyOf(values[b], 2 * sizes[b]);
+        }
+        keys[b][sizes[b]] = key;
+        values[b][sizes[b]++] = value;
+    }
+
+    // refills bucket 0 from the first non-empty bucket, resetting last to its minimum
+    private void pull() {
+        if (sizes[0] > 0) return;
+        int b = 1;
+        while (sizes[b] == 0) b++;
+        long[] k = keys[b];
+        int[] v = values[b];
+        int size = sizes[b];
+        long min = k[0];
+        for (int i = 1; i < size; i++) min = Math.min(min, k[i]);
+        last = min;
+        sizes[b] = 0;
+        // every entry of bucket b lands in a lower bucket, so k and v are not written while read
+        for (int i = 0; i < size; i++) add(bucket(k[i]), v[i], k[i]);
+    }
+}
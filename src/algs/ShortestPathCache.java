@@ -0,0 +1,284 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.TreeSet;
+
+/**
+ * Cache of shortest-path trees keyed on graph version and source.
+ * <p>
+ * Trees are computed by {@link CompactDijkstraSP} over a CSR snapshot of the
+ * graph and kept as a distance array plus an array of parent edge indices,
+ * about 12 bytes per vertex. When the graph's {@link EdgeWeightedDigraph#version()}
+ * changes the snapshot is rebuilt and every cached tree is dropped. The total
+ * size stays under a byte budget by evicting the least recently or least
+ * frequently used tree, and hits, misses, evictions and invalidations are
+ * counted.
+ * <p>
+ * Thread-safe; a miss computes its tree outside the lock.
+ */
+public class ShortestPathCache {
+    private static final long TREE_OVERHEAD = 64;
+
+    /**
+     * Eviction order: LRU drops the tree used longest ago, LFU the tree used
+     * the fewest times, oldest first among ties.
+     */
+    public enum Policy { LRU, LFU }
+
+    private final EdgeWeightedDigraph G;
+    private final long maxBytes;
+    private final Policy policy;
+    private final HashMap<Integer, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> order;
+    private CompactEdgeWeightedDigraph snapshot;
+    private long version;
+    private long tick;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    private static class Entry {
+        private final Tree tree;
+        private long uses;
+        private long lastUse;
+
+        Entry(Tree tree) {
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * Shortest-path tree from one source. Immutable, so it stays valid for the
+     * graph version it was computed at even after being evicted.
+     */
+    public static class Tree {
+        private final CompactEdgeWeightedDigraph G;
+        private final long version;
+        private final int source;
+        private final double[] distTo;
+        private final int[] edgeTo;
+
+        private Tree(CompactEdgeWeightedDigraph G, long version, int source, double[] distTo, int[] edgeTo) {
+            this.G = G;
+            this.version = version;
+            this.source = source;
+            this.distTo = distTo;
+            this.edgeTo = edgeTo;
+        }
+
+        public int source() {
+            return source;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public double distTo(int v) {
+            validateVertex(v);
+            return distTo[v];
+        }
+
+        public boolean hasPathTo(int v) {
+            validateVertex(v);
+            return distTo[v] < Double.POSITIVE_INFINITY;
+        }
+
+        public Iterable<DirectedEdge> pathTo(int v) {
+            validateVertex(v);
+            if (!hasPathTo(v)) return null;
+            Stack<DirectedEdge> path = new Stack<>();
+            for (int i = edgeTo[v]; i != -1; i = edgeTo[G.from(i)]) {
+                path.push(G.edge(i));
+            }
+            return path;
+        }
+
+        long bytes() {
+            return TREE_OVERHEAD + 8L * distTo.length + 4L * edgeTo.length;
+        }
+
+        private void validateVertex(int v) {
+            int V = distTo.length;
+            if (v < 0 || v >= V) {
+                throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+            }
+        }
+    }
+
+    public ShortestPathCache(EdgeWeightedDigraph G, long maxBytes) {
+        this(G, maxBytes, Policy.LRU);
+    }
+
+    public ShortestPathCache(EdgeWeightedDigraph G, long maxBytes, Policy policy) {
+        if (maxBytes < 0) throw new IllegalArgumentException("maxBytes must be non-negative");
+        this.G = G;
+        this.maxBytes = maxBytes;
+        this.policy = policy;
+        Comparator<Entry> byLastUse = Comparator.comparingLong(e -> e.lastUse);
+        if (policy == Policy.LFU) order = new TreeSet<>(Comparator.<Entry>comparingLong(e -> e.uses).thenComparing(byLastUse));
+        else order = new TreeSet<>(byLastUse);
+        this.version = -1;
+    }
+
+    /**
+     * Returns the shortest-path tree from s for the current graph version,
+     * computing and caching it on a miss.
+     */
+    public Tree tree(int s) {
+        CompactEdgeWeightedDigraph H;
+        long at;
+        synchronized (this) {
+            validateVertex(s);
+            refresh();
+            Entry entry = entries.get(s);
+            if (entry != null) {
+                hits++;
+                touch(entry);
+                return entry.tree;
+            }
+            misses++;
+            H = snapshot;
+            at = version;
+        }
+        CompactDijkstraSP sp = new CompactDijkstraSP(H, s);
+        Tree tree = new Tree(H, at, s, sp.distances(), sp.parentEdges());
+        synchronized (this) {
+            if (at == version && !entries.containsKey(s) && tree.bytes() <= maxBytes) {
+                while (bytes + tree.bytes() > maxBytes) evict();
+                Entry entry = new Entry(tree);
+                entries.put(s, entry);
+                bytes += tree.bytes();
+                touch(entry);
+            }
+        }
+        return tree;
+    }
+
+    public double distTo(int s, int v) {
+        return tree(s).distTo(v);
+    }
+
+    public boolean hasPathTo(int s, int v) {
+        return tree(s).hasPathTo(v);
+    }
+
+    public Iterable<DirectedEdge> pathTo(int s, int v) {
+        return tree(s).pathTo(v);
+    }
+
+    // drops everything if the graph changed since the snapshot was taken
+    private void refresh() {
+        if (G.version() == version) return;
+        invalidations += entries.size();
+        entries.clear();
+        order.clear();
+        bytes = 0;
+        snapshot = new CompactEdgeWeightedDigraph(G);
+        version = G.version();
+    }
+
+    private void touch(Entry entry) {
+        order.remove(entry);
+        entry.uses++;
+        entry.lastUse = ++tick;
+        order.add(entry);
+    }
+
+    private void evict() {
+        Entry victim = order.pollFirst();
+        entries.remove(victim.tree.source());
+        bytes -= victim.tree.bytes();
+        evictions++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        order.clear();
+        bytes = 0;
+    }
+
+    public Policy policy() {
+        return policy;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Number of trees dropped because the graph changed.
+     */
+    public synchronized long invalidations() {
+        return invalidations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s cache: %d trees, %d of %d bytes, %d hits, %d misses, %d evictions, %d invalidations",
+                policy, entries.size(), bytes, maxBytes, hits, misses, evictions, invalidations);
+    }
+
+    private void validateVertex(int v) {
+        int V = G.V();
+        if (v < 0 || v >= V) {
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+        }
+    }
+
+    /**
+     * Replays a skewed query stream, where a few hub sources get most queries,
+     * against both policies with room for a handful of trees.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int queries = Integer.parseInt(args[1]);
+        int trees = Integer.parseInt(args[2]);
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            long budget = trees * (TREE_OVERHEAD + 12L * G.V());
+            for (Policy policy : Policy.values()) {
+                ShortestPathCache cache = new ShortestPathCache(G, budget, policy);
+                Random random = new Random(1);
+                long start = System.nanoTime();
+                for (int q = 0; q < queries; q++) {
+                    // hubs: the lowest sources, picked with Zipf-like skew
+                    int s = (int) (G.V() * Math.pow(random.nextDouble(), 4));
+                    cache.distTo(s, random.nextInt(G.V()));
+                }
+                System.out.printf("%s in %.1f ms%n", cache, (System.nanoTime() - start) / 1e6);
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}
@@ -1,25 +1,26 @@
 package algs;
 
-import java.util.EmptyStackException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
+/**
+ * LIFO stack on a growable array.
+ * The array doubles when full and halves when a quarter full.
+ */
+@SuppressWarnings("unchecked")
 public class Stack<E> implements Iterable<E> {
-    private Node<E> first;
-    private int n;
+    private static final int INIT_CAPACITY = 8;
 
-    private static class Node<E> {
-        private E e;
-        private Node<E> next;
-    }
+    private E[] a;
+    private int n;
 
     public Stack() {
-        first = null;
+        a = (E[]) new Object[INIT_CAPACITY];
         n = 0;
     }
 
     public boolean isEmpty() {
-        return first == null;
+        return n == 0;
     }
 
     public int size() {
@@ -27,24 +28,27 @@ public class Stack<E> implements Iterable<E> {
     }
 
     public void push(E e) {
-        Node<E> oldFirst = first;
-        first = new Node<E>();
-        first.e = e;
-        first.next = oldFirst;
-        n++;
+        if (n == a.length) resize(2 * a.length);
+        a[n++] = e;
     }
 
     public E pop() {
         if (isEmpty()) throw new NoSuchElementException("Stack is empty");
-        E e = first.e;
-        first = first.next;
-        n--;
+        E e = a[--n];
+        a[n] = null;
+        if (n > 0 && n == a.length / 4 && a.length > INIT_CAPACITY) resize(a.length / 2);
         return e;
     }
 
     public E peek() {
         if (isEmpty()) throw new NoSuchElementException("Stack is empty");
-        return first.e;
+        return a[n - 1];
+    }
+
+    private void resize(int capacity) {
+        E[] temp = (E[]) new Object[capacity];
+        System.arraycopy(a, 0, temp, 0, n);
+        a = temp;
     }
 
     public String toString() {
@@ -57,25 +61,20 @@ public class Stack<E> implements Iterable<E> {
     }
 
     public Iterator<E> iterator() {
-        return new LinkedIterator(first);
+        return new ReverseArrayIterator();
     }
 
-    private class LinkedIterator implements Iterator<E> {
-        private Node<E> current;
-
-        public LinkedIterator(Node<E> first) {
-            current = first;
-        }
+    // from the top of the stack down
+    private class ReverseArrayIterator implements Iterator<E> {
+        private int i = n;
 
         public boolean hasNext() {
-            return current != null;
+            return i > 0;
         }
 
         public E next() {
             if (!hasNext()) throw new NoSuchElementException();
-            E e = current.e;
-            current = current.next;
-            return e;
+            return a[--i];
         }
     }
 }
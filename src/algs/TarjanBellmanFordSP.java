@@ -0,0 +1,229 @@
+package algs;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+/**
+ * Queue-based Bellman-Ford with Tarjan's subtree disassembly.
+ * <p>
+ * The shortest-path tree is kept as a preorder thread with depths. When an edge
+ * v-&gt;w lowers distTo[w], the subtree of w is cut out of the thread: if v is
+ * in it the tree path from w to v closes a negative cycle, otherwise its
+ * vertices are left unscanned until they improve again, since their labels are
+ * stale anyway. The cycle is therefore found on the relaxation that closes it,
+ * with work proportional to the subtrees removed instead of a periodic full
+ * check.
+ * <p>
+ * The worklist is a deque ordered by the chosen {@link Heuristic}.
+ */
+public class TarjanBellmanFordSP {
+    /**
+     * Worklist order. SLF (small label first) pushes a vertex to the front when
+     * its label is below the front's; LLL (large label last) rotates vertices
+     * whose label is above the queue average to the back before scanning.
+     */
+    public enum Heuristic { FIFO, SLF, LLL, SLF_LLL }
+
+    private final boolean slf;
+    private final boolean lll;
+    private double[] distTo;
+    private DirectedEdge[] edgeTo;
+    private boolean[] onQueue;
+    private int[] deque;
+    private int head;
+    private int size;
+    private double queued; // sum of the labels on the deque, for LLL
+    private int[] next;
+    private int[] prev;
+    private int[] depth; // -1 for vertices outside the tree
+    private Stack<DirectedEdge> cycle;
+
+    public TarjanBellmanFordSP(EdgeWeightedDigraph G, int s) {
+        this(G, s, Heuristic.SLF_LLL);
+    }
+
+    public TarjanBellmanFordSP(EdgeWeightedDigraph G, int s, Heuristic heuristic) {
+        int V = G.V();
+        slf = heuristic == Heuristic.SLF || heuristic == Heuristic.SLF_LLL;
+        lll = heuristic == Heuristic.LLL || heuristic == Heuristic.SLF_LLL;
+        distTo = new double[V];
+        edgeTo = new DirectedEdge[V];
+        onQueue = new boolean[V];
+        deque = new int[V];
+        next = new int[V];
+        prev = new int[V];
+        depth = new int[V];
+        validateVertex(s);
+        for (int v = 0; v < V; v++) {
+            distTo[v] = Double.POSITIVE_INFINITY;
+            next[v] = -1;
+            prev[v] = -1;
+            depth[v] = -1;
+        }
+        distTo[s] = 0.0;
+        depth[s] = 0;
+        addLast(s);
+        while (size > 0 && !hasNegativeCycle()) {
+            int v = poll();
+            if (depth[v] == -1) continue;
+            relax(G, v);
+        }
+    }
+
+    private void relax(EdgeWeightedDigraph G, int v) {
+        for (DirectedEdge e : G.adj(v)) {
+            int w = e.to();
+            double dist = distTo[v] + e.weight();
+            if (distTo[w] > dist) {
+                if (disassemble(w, v)) {
+                    closeCycle(e);
+                    return;
+                }
+                if (onQueue[w]) queued += dist - distTo[w];
+                distTo[w] = dist;
+                edgeTo[w] = e;
+                attach(w, v);
+                if (!onQueue[w]) offer(w);
+            }
+        }
+    }
+
+    // cuts w and its descendants out of the thread; returns true if v is among them
+    private boolean disassemble(int w, int v) {
+        if (w == v) return true;
+        if (depth[w] == -1) return false;
+        int before = prev[w];
+        int u = next[w];
+        while (u != -1 && depth[u] > depth[w]) {
+            if (u == v) return true;
+            depth[u] = -1;
+            u = next[u];
+        }
+        next[before] = u;
+        if (u != -1) prev[u] = before;
+        depth[w] = -1;
+        return false;
+    }
+
+    private void attach(int w, int v) {
+        depth[w] = depth[v] + 1;
+        prev[w] = v;
+        next[w] = next[v];
+        if (next[v] != -1) prev[next[v]] = w;
+        next[v] = w;
+    }
+
+    // e = v->w with v below w in the tree: the cycle is the tree path from w to v plus e
+    private void closeCycle(DirectedEdge e) {
+        cycle = new Stack<>();
+        cycle.push(e);
+        for (int x = e.from(); x != e.to(); x = edgeTo[x].from()) {
+            cycle.push(edgeTo[x]);
+        }
+    }
+
+    private void offer(int w) {
+        if (slf && size > 0 && distTo[w] < distTo[deque[head]]) addFirst(w);
+        else addLast(w);
+    }
+
+    private void addFirst(int v) {
+        head = (head - 1 + deque.length) % deque.length;
+        deque[head] = v;
+        size++;
+        onQueue[v] = true;
+        queued += distTo[v];
+    }
+
+    private void addLast(int v) {
+        deque[(head + size) % deque.length] = v;
+        size++;
+        onQueue[v] = true;
+        queued += distTo[v];
+    }
+
+    private int poll() {
+        if (lll) {
+            double average = queued / size;
+            for (int k = 1; k < size && distTo[deque[head]] > average; k++) {
+                int v = deque[head];
+                head = (head + 1) % deque.length;
+                deque[(head + size - 1) % deque.length] = v;
+            }
+        }
+        int v = deque[head];
+        head = (head + 1) % deque.length;
+        size--;
+        onQueue[v] = false;
+        queued = size == 0 ? 0.0 : queued - distTo[v];
+        return v;
+    }
+
+    public boolean hasNegativeCycle() {
+        return cycle != null;
+    }
+
+    public Iterable<DirectedEdge> negativeCycle() {
+        return cycle;
+    }
+
+    public double distTo(int v) {
+        validateVertex(v);
+        if (hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+        return distTo[v];
+    }
+
+    public boolean hasPathTo(int v) {
+        validateVertex(v);
+        return distTo[v] < Double.POSITIVE_INFINITY;
+    }
+
+    public Iterable<DirectedEdge> pathTo(int v) {
+        validateVertex(v);
+        if (hasNegativeCycle()) throw new UnsupportedOperationException("Negative cycle exists");
+        if (!hasPathTo(v)) return null;
+        Stack<DirectedEdge> path = new Stack<>();
+        for (DirectedEdge e = edgeTo[v]; e != null; e = edgeTo[e.from()]) {
+            path.push(e);
+        }
+        return path;
+    }
+
+    private void validateVertex(int v) {
+        int V = distTo.length;
+        if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 && args.length != 3) throw new IllegalArgumentException("Wrong number of arguments");
+        File file = new File(args[0]);
+        int s = Integer.parseInt(args[1]);
+        Heuristic heuristic = args.length == 3 ? Heuristic.valueOf(args[2]) : Heuristic.SLF_LLL;
+        try (Scanner in = new Scanner(file)) {
+            EdgeWeightedDigraph G = new EdgeWeightedDigraph(in);
+            TarjanBellmanFordSP sp = new TarjanBellmanFordSP(G, s, heuristic);
+
+            if (sp.hasNegativeCycle()) {
+                for (DirectedEdge e : sp.negativeCycle()) {
+                    System.out.println(e);
+                }
+            } else {
+                for (int v = 0; v < G.V(); v++) {
+                    if (sp.hasPathTo(v)) {
+                        System.out.printf("%d to %d (%5.2f)  ", s, v, sp.distTo(v));
+                        for (DirectedEdge e : sp.pathTo(v)) {
+                            System.out.print(e + "   ");
+                        }
+                        System.out.println();
+                    } else {
+                        System.out.printf("%d to %d   no path\n", s, v);
+                    }
+                }
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new FileNotFoundException("File " + args[0] + " not found");
+        }
+    }
+}